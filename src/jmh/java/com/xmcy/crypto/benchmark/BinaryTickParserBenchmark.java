@@ -0,0 +1,62 @@
+package com.xmcy.crypto.benchmark;
+
+import com.xmcy.crypto.helper.BinaryTickParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-file parse of the generated dataset in the binary tick format, the counterpart of {@link CsvParserBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BinaryTickParserBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int ticks;
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private final BinaryTickParser binaryTickParser = new BinaryTickParser(TickDataset.SYMBOLS);
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = new TickDataset(ticks).writeBinary();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long parseBinary(Blackhole blackhole) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file))) {
+            return binaryTickParser.parseBinary(inputStream, batchSize, blackhole::consume);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.xmcy.crypto.benchmark;
+
+import com.xmcy.crypto.helper.DataInserter;
+import com.xmcy.crypto.model.CalendarMonth;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.repository.CryptoRepository;
+import com.xmcy.crypto.service.CryptoService;
+import com.xmcy.crypto.service.RecommendationEngine;
+import com.xmcy.crypto.store.TickStore;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CryptoService reads over a populated TickStore, called directly so the Caffeine cache is not in the way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CryptoServiceBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int ticks;
+
+    private CryptoService cryptoService;
+    private String date;
+    private CalendarMonth march;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TickDataset dataset = new TickDataset(ticks);
+        List<Crypto> cryptos = dataset.toList();
+        TickStore tickStore = new TickStore();
+        tickStore.addAll(cryptos);
+
+        march = CalendarMonth.of(null, 3, null);
+        date = LocalDate.now().withDayOfYear(100).format(CryptoService.DATE_FORMAT);
+        cryptoService = new CryptoService(Mockito.mock(CryptoRepository.class), tickStore, Mockito.mock(DataInserter.class),
+                new RecommendationEngine(tickStore, Duration.ofDays(30), Duration.ofDays(7), 0.25));
+    }
+
+    @Benchmark
+    public Map<String, Double> getNormalizedValues() {
+        return cryptoService.getNormalizedValues();
+    }
+
+    @Benchmark
+    public Optional<Crypto> getOldestCryptoByNameAndMonth() {
+        return cryptoService.getOldestCryptoByNameAndMonth("Bitcoin", march);
+    }
+
+    @Benchmark
+    public Optional<Crypto> getNewestCryptoByNameAndMonth() {
+        return cryptoService.getNewestCryptoByNameAndMonth("Bitcoin", march);
+    }
+
+    @Benchmark
+    public Optional<Crypto> getCryptoWithMaxValueByNameAndMonth() {
+        return cryptoService.getCryptoWithMaxValueByNameAndMonth("Bitcoin", march);
+    }
+
+    @Benchmark
+    public Optional<Crypto> getCryptoWithMinValueByNameAndMonth() {
+        return cryptoService.getCryptoWithMinValueByNameAndMonth("Bitcoin", march);
+    }
+
+    @Benchmark
+    public Optional<Crypto> getCryptoWithHighestNormalization() {
+        return cryptoService.getCryptoWithHighestNormalization(date);
+    }
+}
@@ -0,0 +1,62 @@
+package com.xmcy.crypto.benchmark;
+
+import com.xmcy.crypto.helper.CsvParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-file parse of a generated CSV, read from disk the way uploads and startup files are streamed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CsvParserBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int ticks;
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private final CsvParser csvParser = new CsvParser(TickDataset.SYMBOLS, new SimpleMeterRegistry());
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = new TickDataset(ticks).writeCsv();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long parseCsv(Blackhole blackhole) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return csvParser.parseCsv(inputStream, batchSize, blackhole::consume);
+        }
+    }
+}
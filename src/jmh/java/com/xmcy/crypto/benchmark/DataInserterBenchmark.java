@@ -0,0 +1,86 @@
+package com.xmcy.crypto.benchmark;
+
+import com.xmcy.crypto.helper.DataInserter;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.store.TickStore;
+import com.xmcy.crypto.wal.WriteAheadLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting a whole dataset in upload-sized batches into an empty in-memory H2 table, the startup load path.
+ * Each invocation starts from a fresh table and TickStore, so the numbers are per full load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DataInserterBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int ticks;
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private List<List<Crypto>> batches;
+    private DataInserter dataInserter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        List<Crypto> cryptos = new TickDataset(ticks).toList();
+        batches = new ArrayList<>();
+        for (int i = 0; i < cryptos.size(); i += batchSize) {
+            batches.add(cryptos.subList(i, Math.min(i + batchSize, cryptos.size())));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS cryptos");
+        jdbcTemplate.execute("CREATE TABLE cryptos (id BIGINT PRIMARY KEY, timing BIGINT, name VARCHAR(255), price DOUBLE, recommendation VARCHAR(255))");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX uk_cryptos_timing_name ON cryptos (timing, name)");
+        dataInserter = new DataInserter(new NamedParameterJdbcTemplate(jdbcTemplate), new TickStore(),
+                new WriteAheadLog(false, null, Duration.ZERO), new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void insertData() {
+        for (List<Crypto> batch : batches) {
+            dataInserter.insertData(batch);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.xmcy.crypto.benchmark;
+
+import com.xmcy.crypto.config.RateLimiterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per request overhead of the rate limiter with many threads hitting it at once. A single client makes every
+ * thread race on one bucket, many clients spread the load over the bucket cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class RateLimiterFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"1", "10000"})
+    private int clients;
+
+    @Param({"/api/crypto/newest", "/api/crypto/normalized-values/BTC"})
+    private String path;
+
+    private RateLimiterFilter filter;
+    private MockHttpServletRequest[] requests;
+
+    @Setup
+    public void setUp() {
+        // Large enough that every request is let through and the benchmark measures the bookkeeping only
+        filter = new RateLimiterFilter(Integer.MAX_VALUE, 1, "hours", 100_000,
+                Map.of("/api/crypto/normalized-values/**", 3), Optional.empty(), new SimpleMeterRegistry());
+        requests = new MockHttpServletRequest[clients];
+        for (int i = 0; i < clients; i++) {
+            requests[i] = new MockHttpServletRequest("GET", path);
+            requests[i].setRemoteAddr("10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadResponse {
+        private final MockHttpServletResponse response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public int filter(ThreadResponse threadResponse) throws Exception {
+        MockHttpServletRequest request = requests[ThreadLocalRandom.current().nextInt(clients)];
+        filter.doFilter(request, threadResponse.response, NO_OP_CHAIN);
+        return threadResponse.response.getStatus();
+    }
+}
@@ -0,0 +1,36 @@
+package com.xmcy.crypto.benchmark;
+
+import com.xmcy.crypto.model.CryptoSymbol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name and symbol lookups as done per request and per CSV line. Keys matching neither the registered spelling of
+ * the name or symbol nor its lower case take a second probe with the lower-cased key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SymbolRegistryBenchmark {
+
+    @Param({"Bitcoin", "litecoin", "BTC", "ltc"})
+    private String name;
+
+    @Benchmark
+    public CryptoSymbol find() {
+        return TickDataset.SYMBOLS.find(name);
+    }
+}
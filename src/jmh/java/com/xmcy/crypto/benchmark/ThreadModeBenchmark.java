@@ -0,0 +1,88 @@
+package com.xmcy.crypto.benchmark;
+
+import com.xmcy.crypto.Application;
+import com.xmcy.crypto.helper.CsvDataLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform-thread Tomcat against the virtual-threads profile under many concurrent clients, reporting throughput
+ * and the latency distribution (p99 in the SampleTime percentiles). The virtual mode needs a Java 21 JVM for the
+ * forks, e.g. {@code -Djmh.args="-jvm /path/to/jdk-21/bin/java"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"/api/crypto/newest/BTC", "/api/crypto/export"})
+    private String endpoint;
+
+    // Small enough that the platform pool saturates, like the pod's CPU-capped deployment
+    @Param({"50"})
+    private int tomcatThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        String profiles = "virtual".equals(threads) ? "dev,virtual-threads" : "dev";
+        context = SpringApplication.run(Application.class,
+                "--server.port=0",
+                "--spring.profiles.active=" + profiles,
+                "--server.tomcat.threads.max=" + tomcatThreads,
+                "--rate.limiter.requests=2000000000",
+                "--logging.level.root=WARN");
+        CsvDataLoader csvDataLoader = context.getBean(CsvDataLoader.class);
+        while (!csvDataLoader.isLoaded()) {
+            Thread.sleep(100);
+        }
+        String port = context.getEnvironment().getRequiredProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + endpoint)).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int request() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(endpoint + " answered " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
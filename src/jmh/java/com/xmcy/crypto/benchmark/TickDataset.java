@@ -0,0 +1,91 @@
+package com.xmcy.crypto.benchmark;
+
+import com.xmcy.crypto.codec.TickWriter;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.model.CryptoSymbol;
+import com.xmcy.crypto.store.SymbolRegistry;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic synthetic ticks spread evenly over the current year, grouped by symbol like the price CSV files.
+ */
+final class TickDataset {
+
+    static final SymbolRegistry SYMBOLS = new SymbolRegistry(
+            List.of("Bitcoin:BTC", "Ethereum:ETH", "Ripple:XRP", "Dogecoin:DOGE", "Litecoin:LTC"));
+    private static final List<CryptoSymbol> TYPES = SYMBOLS.symbols();
+    private static final double[] BASE_PRICES = {46000.0, 3700.0, 0.83, 0.17, 146.0};
+
+    private final int ticks;
+    private final int perSymbol;
+    private final long start;
+    private final long step;
+
+    TickDataset(int ticks) {
+        this.ticks = ticks;
+        this.perSymbol = Math.max(1, ticks / TYPES.size());
+        LocalDate firstDay = LocalDate.now().withDayOfYear(1);
+        this.start = firstDay.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long end = firstDay.plusYears(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        this.step = Math.max(1, (end - start) / perSymbol);
+    }
+
+    int size() {
+        return ticks;
+    }
+
+    Crypto tick(int index) {
+        int symbol = Math.min(index / perSymbol, TYPES.size() - 1);
+        int offset = index - symbol * perSymbol;
+        // Slow swing plus hashed noise, so min/max land at different places per symbol and month
+        double noise = ((index * 2654435761L) & 0xFFFF) / 65536.0 - 0.5;
+        double price = BASE_PRICES[symbol] * (1 + 0.2 * Math.sin(offset * 6.0 / perSymbol) + 0.01 * noise);
+        return new Crypto(index + 1L, start + offset * step, TYPES.get(symbol).name(), price, null);
+    }
+
+    List<Crypto> toList() {
+        List<Crypto> cryptos = new ArrayList<>(ticks);
+        for (int i = 0; i < ticks; i++) {
+            cryptos.add(tick(i));
+        }
+        return cryptos;
+    }
+
+    Path writeCsv() throws IOException {
+        Path file = Files.createTempFile("ticks-" + ticks + "-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("timing,symbol,price");
+            writer.newLine();
+            for (int i = 0; i < ticks; i++) {
+                Crypto tick = tick(i);
+                writer.write(tick.timing() + "," + SYMBOLS.find(tick.name()).symbol() + "," + tick.price());
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+
+    Path writeBinary() throws IOException {
+        Path file = Files.createTempFile("ticks-" + ticks + "-", ".bin");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            TickWriter writer = new TickWriter(out, TickWriter.DEFAULT_BLOCK_SIZE);
+            for (int i = 0; i < ticks; i++) {
+                Crypto tick = tick(i);
+                writer.write(tick.name(), tick.timing(), tick.price());
+            }
+            writer.finish();
+        }
+        return file;
+    }
+}
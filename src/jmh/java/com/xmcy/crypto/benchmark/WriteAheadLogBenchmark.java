@@ -0,0 +1,95 @@
+package com.xmcy.crypto.benchmark;
+
+import com.xmcy.crypto.Application;
+import com.xmcy.crypto.helper.CsvDataLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single ticks added over HTTP through {@code POST /api/crypto} with the write-ahead log off, waiting for every
+ * fsync ({@code sync}, where concurrent requests share one fsync) and with a 10ms durability window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(32)
+@Fork(1)
+public class WriteAheadLogBenchmark {
+
+    @Param({"off", "sync", "window"})
+    private String wal;
+
+    private final AtomicLong timing = new AtomicLong(1_700_000_000_000L);
+    private ConfigurableApplicationContext context;
+    private Path directory;
+    private HttpClient client;
+    private URI uri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        directory = Files.createTempDirectory("wal-benchmark-");
+        context = SpringApplication.run(Application.class,
+                "--server.port=0",
+                "--spring.profiles.active=dev",
+                "--rate.limiter.requests=2000000000",
+                "--snapshot.enabled=false",
+                "--wal.enabled=" + !"off".equals(wal),
+                "--wal.dir=" + directory,
+                "--wal.sync.window=" + ("window".equals(wal) ? "10ms" : "0s"),
+                "--logging.level.root=WARN");
+        CsvDataLoader csvDataLoader = context.getBean(CsvDataLoader.class);
+        while (!csvDataLoader.isLoaded()) {
+            Thread.sleep(100);
+        }
+        String port = context.getEnvironment().getRequiredProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        uri = URI.create("http://localhost:" + port + "/api/crypto");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int addTick() throws IOException, InterruptedException {
+        String body = "{\"timing\":" + timing.incrementAndGet() + ",\"name\":\"Bitcoin\",\"price\":46813.21}";
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("POST /api/crypto answered " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,34 @@
+package com.xmcy.crypto.codec;
+
+import com.xmcy.crypto.exception.InvalidCryptoDataException;
+
+/**
+ * Reads the bits written by {@link BitOutput}.
+ */
+class BitInput {
+    private final byte[] bytes;
+    private final long limit;
+    private long position;
+
+    BitInput(byte[] bytes, int length) {
+        this.bytes = bytes;
+        this.limit = (long) length << 3;
+    }
+
+    boolean readBit() {
+        if (position >= limit) {
+            throw new InvalidCryptoDataException("Block ends in the middle of a tick");
+        }
+        boolean bit = (bytes[(int) (position >>> 3)] & 0x80 >>> (position & 7)) != 0;
+        position++;
+        return bit;
+    }
+
+    long readBits(int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = value << 1 | (readBit() ? 1 : 0);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,52 @@
+package com.xmcy.crypto.codec;
+
+import java.util.Arrays;
+
+/**
+ * Growable bit buffer written most significant bit first.
+ */
+class BitOutput {
+    private byte[] bytes = new byte[256];
+    private long bitCount;
+
+    void writeBit(boolean bit) {
+        ensureCapacity(bitCount + 1);
+        if (bit) {
+            bytes[(int) (bitCount >>> 3)] |= (byte) (0x80 >>> (bitCount & 7));
+        }
+        bitCount++;
+    }
+
+    /**
+     * Writes the lowest count bits of value, count between 0 and 64.
+     */
+    void writeBits(long value, int count) {
+        ensureCapacity(bitCount + count);
+        for (int shift = count - 1; shift >= 0; shift--) {
+            if ((value >>> shift & 1) != 0) {
+                bytes[(int) (bitCount >>> 3)] |= (byte) (0x80 >>> (bitCount & 7));
+            }
+            bitCount++;
+        }
+    }
+
+    int byteLength() {
+        return (int) ((bitCount + 7) >>> 3);
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    void reset() {
+        Arrays.fill(bytes, 0, byteLength(), (byte) 0);
+        bitCount = 0;
+    }
+
+    private void ensureCapacity(long bits) {
+        int needed = (int) ((bits + 7) >>> 3);
+        if (needed > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(needed, bytes.length * 2));
+        }
+    }
+}
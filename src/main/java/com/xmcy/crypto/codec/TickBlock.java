@@ -0,0 +1,14 @@
+package com.xmcy.crypto.codec;
+
+/**
+ * Ticks of one symbol as decoded from one block, in the order they were written.
+ */
+public record TickBlock(
+    String name,
+    long[] timings,
+    double[] prices
+) {
+    public int size() {
+        return timings.length;
+    }
+}
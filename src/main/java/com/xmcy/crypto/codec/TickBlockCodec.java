@@ -0,0 +1,128 @@
+package com.xmcy.crypto.codec;
+
+/**
+ * Bit level encoding of one block, the timings first and then the prices.
+ * <p>
+ * Timings are stored as the change of the delta to the previous timing (delta of delta), zigzag encoded behind a
+ * prefix that selects the width, so a feed at a fixed interval costs one bit per timing. Prices are stored as the
+ * XOR with the previous price as in Facebook's Gorilla: a repeated price costs one bit, otherwise only the bits
+ * between the leading and trailing zeros of the XOR are written, reusing the previous window when they fit.
+ */
+final class TickBlockCodec {
+
+    private TickBlockCodec() {
+    }
+
+    static void encode(long[] timings, double[] prices, int count, BitOutput out) {
+        out.writeBits(timings[0], 64);
+        long previousDelta = 0;
+        for (int i = 1; i < count; i++) {
+            long delta = timings[i] - timings[i - 1];
+            writeDeltaOfDelta(delta - previousDelta, out);
+            previousDelta = delta;
+        }
+
+        long previous = Double.doubleToRawLongBits(prices[0]);
+        out.writeBits(previous, 64);
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = 1; i < count; i++) {
+            long bits = Double.doubleToRawLongBits(prices[i]);
+            long xor = bits ^ previous;
+            previous = bits;
+            if (xor == 0) {
+                out.writeBit(false);
+                continue;
+            }
+            out.writeBit(true);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                out.writeBit(false);
+                out.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int significant = 64 - leading - trailing;
+                out.writeBit(true);
+                out.writeBits(leading, 5);
+                out.writeBits(significant - 1, 6);
+                out.writeBits(xor >>> trailing, significant);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+    }
+
+    static void decode(BitInput in, long[] timings, double[] prices) {
+        int count = timings.length;
+        timings[0] = in.readBits(64);
+        long delta = 0;
+        for (int i = 1; i < count; i++) {
+            delta += readDeltaOfDelta(in);
+            timings[i] = timings[i - 1] + delta;
+        }
+
+        long previous = in.readBits(64);
+        prices[0] = Double.longBitsToDouble(previous);
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.readBits(5);
+                    trailing = 64 - leading - ((int) in.readBits(6) + 1);
+                }
+                previous ^= in.readBits(64 - leading - trailing) << trailing;
+            }
+            prices[i] = Double.longBitsToDouble(previous);
+        }
+    }
+
+    /**
+     * Upper bound of the encoded size of a block, used to reject corrupt block lengths before allocating.
+     */
+    static long maxBytes(int count) {
+        // 64 bit first values, at most 5 + 64 bits per timing and 1 + 1 + 5 + 6 + 64 bits per price
+        return (128 + (long) count * (69 + 77) + 7) / 8;
+    }
+
+    private static void writeDeltaOfDelta(long deltaOfDelta, BitOutput out) {
+        long zigzag = deltaOfDelta << 1 ^ deltaOfDelta >> 63;
+        if (zigzag == 0) {
+            out.writeBit(false);
+        } else if (zigzag >>> 7 == 0) {
+            out.writeBits(0b10, 2);
+            out.writeBits(zigzag, 7);
+        } else if (zigzag >>> 9 == 0) {
+            out.writeBits(0b110, 3);
+            out.writeBits(zigzag, 9);
+        } else if (zigzag >>> 12 == 0) {
+            out.writeBits(0b1110, 4);
+            out.writeBits(zigzag, 12);
+        } else if (zigzag >>> 32 == 0) {
+            out.writeBits(0b11110, 5);
+            out.writeBits(zigzag, 32);
+        } else {
+            out.writeBits(0b11111, 5);
+            out.writeBits(zigzag, 64);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitInput in) {
+        int width;
+        if (!in.readBit()) {
+            return 0;
+        } else if (!in.readBit()) {
+            width = 7;
+        } else if (!in.readBit()) {
+            width = 9;
+        } else if (!in.readBit()) {
+            width = 12;
+        } else if (!in.readBit()) {
+            width = 32;
+        } else {
+            width = 64;
+        }
+        long zigzag = in.readBits(width);
+        return zigzag >>> 1 ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.xmcy.crypto.codec;
+
+import com.xmcy.crypto.helper.CsvParser;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.store.SymbolRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Converts a CSV upload into the binary tick format.
+ * <pre>
+ * java -cp crypto.jar -Dloader.main=com.xmcy.crypto.codec.TickCsvConverter org.springframework.boot.loader.PropertiesLauncher in.csv out.bin
+ * </pre>
+ */
+public final class TickCsvConverter {
+
+    private TickCsvConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: TickCsvConverter <input.csv> <output.bin>");
+            System.exit(1);
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(args[0])));
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(Path.of(args[1])))) {
+            // The symbols configured for the application, so the same files are accepted
+            String symbols = PropertiesLoaderUtils.loadAllProperties("application.properties").getProperty("crypto.symbols");
+            long rows = convert(in, out, new SymbolRegistry(List.of(symbols.split(","))));
+            System.out.println("Converted " + rows + " rows");
+        }
+    }
+
+    public static long convert(InputStream csv, OutputStream binary, SymbolRegistry symbolRegistry) throws IOException {
+        TickWriter writer = new TickWriter(binary, TickWriter.DEFAULT_BLOCK_SIZE);
+        try {
+            long rows = new CsvParser(symbolRegistry, new SimpleMeterRegistry()).parseCsv(csv, TickWriter.DEFAULT_BLOCK_SIZE, batch -> {
+                try {
+                    for (Crypto crypto : batch) {
+                        writer.write(crypto.name(), crypto.timing(), crypto.price());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+            return rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
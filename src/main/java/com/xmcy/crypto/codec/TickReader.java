@@ -0,0 +1,66 @@
+package com.xmcy.crypto.codec;
+
+import com.xmcy.crypto.exception.InvalidCryptoDataException;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the blocks written by {@link TickWriter} one at a time, so memory use is bounded by the block size.
+ * Malformed input fails with an {@link InvalidCryptoDataException}.
+ */
+public class TickReader {
+
+    static final int MAX_BLOCK_SIZE = 1 << 16;
+
+    private final DataInputStream in;
+    private byte[] buffer = new byte[0];
+    private boolean finished;
+
+    public TickReader(InputStream inputStream) throws IOException {
+        this.in = new DataInputStream(inputStream);
+        try {
+            if (in.readInt() != TickWriter.MAGIC) {
+                throw new InvalidCryptoDataException("Not a binary tick stream");
+            }
+        } catch (EOFException e) {
+            throw new InvalidCryptoDataException("Not a binary tick stream");
+        }
+    }
+
+    /**
+     * @return the next block, or null once the end marker was read
+     */
+    public TickBlock next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        try {
+            int marker = in.readUnsignedByte();
+            if (marker == TickWriter.END) {
+                finished = true;
+                return null;
+            }
+            if (marker != TickWriter.BLOCK) {
+                throw new InvalidCryptoDataException("Unknown block marker: " + marker);
+            }
+            String name = in.readUTF();
+            int count = in.readInt();
+            int length = in.readInt();
+            if (count < 1 || count > MAX_BLOCK_SIZE || length < 0 || length > TickBlockCodec.maxBytes(count)) {
+                throw new InvalidCryptoDataException("Corrupt block header for " + name);
+            }
+            if (buffer.length < length) {
+                buffer = new byte[length];
+            }
+            in.readFully(buffer, 0, length);
+            TickBlock block = new TickBlock(name, new long[count], new double[count]);
+            TickBlockCodec.decode(new BitInput(buffer, length), block.timings(), block.prices());
+            return block;
+        } catch (EOFException e) {
+            throw new InvalidCryptoDataException("Binary tick stream ends without an end marker");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.xmcy.crypto.codec;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes ticks in the binary tick format.
+ * <p>
+ * The stream starts with {@link #MAGIC} and holds a sequence of blocks, each a 1 byte marker, the symbol name
+ * (modified UTF-8 as by {@link DataOutputStream#writeUTF}), the tick count, the byte length of the encoded block
+ * and the block itself (see {@link TickBlockCodec}). A 0 marker ends the stream. Ticks are buffered per symbol
+ * and a block is written whenever a symbol's buffer holds blockSize ticks, so ticks of different symbols may
+ * arrive interleaved. Compression is best for ticks written in timing order.
+ */
+public class TickWriter {
+
+    public static final int MAGIC = 0x58544B31;
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+    static final int BLOCK = 1;
+    static final int END = 0;
+
+    private final DataOutputStream out;
+    private final int blockSize;
+    private final Map<String, SymbolBuffer> buffers = new LinkedHashMap<>();
+    private final BitOutput bits = new BitOutput();
+
+    public TickWriter(OutputStream outputStream, int blockSize) throws IOException {
+        if (blockSize < 1 || blockSize > TickReader.MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Block size must be between 1 and " + TickReader.MAX_BLOCK_SIZE);
+        }
+        this.out = new DataOutputStream(outputStream);
+        this.blockSize = blockSize;
+        out.writeInt(MAGIC);
+    }
+
+    public void write(String name, long timing, double price) throws IOException {
+        SymbolBuffer buffer = buffers.computeIfAbsent(name, key -> new SymbolBuffer(blockSize));
+        buffer.timings[buffer.size] = timing;
+        buffer.prices[buffer.size] = price;
+        if (++buffer.size == blockSize) {
+            writeBlock(name, buffer);
+        }
+    }
+
+    /**
+     * Writes the remaining buffered ticks and the end marker. The underlying stream is flushed but left open.
+     */
+    public void finish() throws IOException {
+        for (Map.Entry<String, SymbolBuffer> entry : buffers.entrySet()) {
+            if (entry.getValue().size > 0) {
+                writeBlock(entry.getKey(), entry.getValue());
+            }
+        }
+        out.writeByte(END);
+        out.flush();
+    }
+
+    private void writeBlock(String name, SymbolBuffer buffer) throws IOException {
+        bits.reset();
+        TickBlockCodec.encode(buffer.timings, buffer.prices, buffer.size, bits);
+        out.writeByte(BLOCK);
+        out.writeUTF(name);
+        out.writeInt(buffer.size);
+        out.writeInt(bits.byteLength());
+        out.write(bits.bytes(), 0, bits.byteLength());
+        buffer.size = 0;
+    }
+
+    private static final class SymbolBuffer {
+        private final long[] timings;
+        private final double[] prices;
+        private int size;
+
+        private SymbolBuffer(int blockSize) {
+            timings = new long[blockSize];
+            prices = new double[blockSize];
+        }
+    }
+}
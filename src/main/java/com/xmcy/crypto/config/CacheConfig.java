@@ -0,0 +1,40 @@
+package com.xmcy.crypto.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * One Caffeine cache per cached {@code CryptoService} read, each sized and expired through its own
+ * {@code cache.<name>.spec} property. Statistics are recorded so actuator binds them to Prometheus.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String NORMALIZED_VALUES = "normalizedValues";
+    public static final String NORMALIZED_VALUES_BY_NAME = "normalizedValuesByName";
+    public static final String MONTHLY_TICKS = "monthlyTicks";
+    public static final String HIGHEST_NORMALIZATION_BY_DATE = "highestNormalizationByDate";
+
+    private static final List<String> CACHE_NAMES =
+            List.of(NORMALIZED_VALUES, NORMALIZED_VALUES_BY_NAME, MONTHLY_TICKS, HIGHEST_NORMALIZATION_BY_DATE);
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches registered here exist, a typo in a cache name fails instead of creating an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        for (String name : CACHE_NAMES) {
+            String spec = environment.getRequiredProperty("cache." + name + ".spec");
+            cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+        }
+        return cacheManager;
+    }
+}
@@ -1,13 +1,66 @@
 package com.xmcy.crypto.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
+@EnableScheduling
 public class Config {
     @Bean
     PathMatchingResourcePatternResolver resourcePatternResolver() {
         return new PathMatchingResourcePatternResolver();
     }
+
+    @Bean
+    @Profile("!" + VirtualThreadConfig.PROFILE)
+    ThreadPoolTaskExecutor dataLoaderExecutor(@Value("${data.loader.threads}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("data-loader-");
+        return executor;
+    }
+
+    @Bean
+    @Profile("!" + VirtualThreadConfig.PROFILE)
+    ThreadPoolTaskExecutor batchQueryExecutor(@Value("${batch.query.threads}") int threads,
+                                              @Value("${batch.query.queue.capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        // A full queue makes the request thread run the sub-query itself instead of queueing without bound
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("batch-query-");
+        return executor;
+    }
+
+    @Bean
+    @Profile("!" + VirtualThreadConfig.PROFILE)
+    ThreadPoolTaskExecutor uploadJobExecutor(@Value("${upload.job.concurrency}") int concurrency,
+                                             @Value("${upload.job.queue.capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-job-");
+        return executor;
+    }
+
+    @Bean
+    @Profile("!" + VirtualThreadConfig.PROFILE)
+    ThreadPoolTaskExecutor streamExecutor(@Value("${stream.threads}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("tick-stream-");
+        return executor;
+    }
 }
@@ -0,0 +1,28 @@
+package com.xmcy.crypto.config;
+
+import com.xmcy.crypto.helper.CsvDataLoader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the readiness group out of service until the startup CSV load has finished.
+ */
+@Component("dataLoad")
+@RequiredArgsConstructor
+public class DataLoadHealthIndicator implements HealthIndicator {
+
+    private final CsvDataLoader csvDataLoader;
+
+    @Override
+    public Health health() {
+        if (!csvDataLoader.isLoaded()) {
+            return Health.outOfService().withDetail("csvData", "loading").build();
+        }
+        return Health.up()
+                .withDetail("csvData", "loaded")
+                .withDetail("failedFiles", csvDataLoader.getFailedFiles())
+                .build();
+    }
+}
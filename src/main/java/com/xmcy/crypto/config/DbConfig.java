@@ -2,15 +2,23 @@ package com.xmcy.crypto.config;
 
 import com.xmcy.crypto.helper.CsvDataLoader;
 
-import jakarta.annotation.PostConstruct;
-
+import com.xmcy.crypto.helper.DataInserter;
+import com.xmcy.crypto.snapshot.SnapshotService;
+import com.xmcy.crypto.wal.WriteAheadLog;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executor;
+
 
 @Configuration
 public class DbConfig {
@@ -22,13 +30,55 @@ public class DbConfig {
     @Autowired
     private CsvDataLoader csvDataLoader;
 
-    @PostConstruct
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private WriteAheadLog writeAheadLog;
+
+    @Autowired
+    private DataInserter dataInserter;
+
+    @Value("${data.loader.batch.size:1000}")
+    private int batchSize;
+
+    // Not the data loader executor: the startup task would hold one of the threads its CSV files need, which
+    // deadlocks the concurrency limited virtual executor with data.loader.threads=1
+    private Executor startupExecutor = task -> new Thread(task, "startup-data-load").start();
+
+    // Runs in the background, readiness stays out of service until DataLoadHealthIndicator reports the load done.
+    // The write-ahead log is replayed on top of the snapshot or CSV files before the load counts as done.
+    @EventListener(ApplicationReadyEvent.class)
     public void loadCsvData() {
+        startupExecutor.execute(() -> {
+            if (restoreSnapshot()) {
+                csvDataLoader.loadCsvData(new Resource[0], this::replayWriteAheadLog);
+                return;
+            }
+            try {
+                Resource[] resources = resourceResolver.getResources("classpath:price/*.csv");
+                csvDataLoader.loadCsvData(resources, this::replayWriteAheadLog);
+            } catch (Exception e) {
+                logger.error("Error loading CSV data", e);
+                csvDataLoader.loadCsvData(new Resource[0], this::replayWriteAheadLog);
+            }
+        });
+    }
+
+    private boolean restoreSnapshot() {
+        try {
+            return snapshotService.restore();
+        } catch (RuntimeException e) {
+            logger.error("Error restoring the snapshot", e);
+            return false;
+        }
+    }
+
+    private void replayWriteAheadLog() {
         try {
-            Resource[] resources = resourceResolver.getResources("classpath:price/*.csv");
-            csvDataLoader.loadCsvData(resources);
-        } catch (Exception e) {
-            logger.error("Error loading CSV data", e);
+            writeAheadLog.replay(batchSize, dataInserter::restoreData, dataInserter::restoreDelete);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay the write-ahead log", e);
         }
     }
-}
\ No newline at end of file
+}
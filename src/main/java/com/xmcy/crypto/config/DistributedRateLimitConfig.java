@@ -0,0 +1,34 @@
+package com.xmcy.crypto.config;
+
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * With {@code rate.limiter.store=jdbc} the rate limiter buckets are shared by every instance using the same
+ * database instead of living in each instance's memory.
+ * <p>
+ * Each instance takes tokens from its local copy of a bucket. It only writes back to the database after
+ * {@code rate.limiter.sync.tokens} tokens or {@code rate.limiter.sync.interval}, whichever comes first, and
+ * concurrent writes back of one bucket are merged into one. The cluster may therefore go over the limit by up to
+ * the sync tokens per instance. {@code rate.limiter.sync.tokens=0} synchronizes on every request instead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rate.limiter.store", havingValue = "jdbc")
+public class DistributedRateLimitConfig {
+
+    @Bean
+    JdbcBucketProxyManager jdbcBucketProxyManager(DataSource dataSource,
+                                                  @Value("${rate.limiter.sync.tokens}") long syncTokens,
+                                                  @Value("${rate.limiter.sync.interval}") Duration syncInterval) {
+        JdbcBucketProxyManager proxyManager = new JdbcBucketProxyManager(dataSource,
+                syncTokens > 0 ? new DelayParameters(syncTokens, syncInterval) : null);
+        proxyManager.createTable();
+        return proxyManager;
+    }
+}
@@ -0,0 +1,165 @@
+package com.xmcy.crypto.config;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.AbstractSelectForUpdateBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.LockAndGetResult;
+import io.github.bucket4j.distributed.proxy.generic.select_for_update.SelectForUpdateBasedTransaction;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+
+/**
+ * Keeps bucket state in a table of the application datasource, so every instance pointing at the same database
+ * shares one bucket per client. Each access locks the row with SELECT ... FOR UPDATE for the length of a short
+ * transaction. With sync parameters the buckets handed out keep a local token count and only synchronize with the
+ * table once enough tokens were taken or enough time passed.
+ */
+public class JdbcBucketProxyManager extends AbstractSelectForUpdateBasedProxyManager<String> {
+
+    private static final String TABLE = "RATE_LIMIT_BUCKETS";
+
+    private final DataSource dataSource;
+    private final DelayParameters syncParameters;
+
+    /**
+     * @param syncParameters how far a bucket may run ahead of the table, or null to synchronize on every request
+     */
+    public JdbcBucketProxyManager(DataSource dataSource, DelayParameters syncParameters) {
+        super(ClientSideConfig.getDefault());
+        this.dataSource = dataSource;
+        this.syncParameters = syncParameters;
+    }
+
+    public Bucket bucket(String key, BucketConfiguration configuration) {
+        Bucket bucket = builder().build(key, configuration);
+        if (syncParameters == null) {
+            return bucket;
+        }
+        // The delaying executor of bucket4j 8.1 fails on a missing row instead of creating it, so make sure it exists
+        bucket.getAvailableTokens();
+        return builder()
+                .withOptimization(Optimizations.delaying(syncParameters))
+                .build(key, configuration);
+    }
+
+    public void createTable() {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (ID VARCHAR(64) PRIMARY KEY, STATE VARBINARY(1024))");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create table " + TABLE, e);
+        }
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("DELETE FROM " + TABLE + " WHERE ID = ?")) {
+            statement.setString(1, key);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not remove bucket " + key, e);
+        }
+    }
+
+    @Override
+    protected SelectForUpdateBasedTransaction allocateTransaction(String key) {
+        try {
+            return new JdbcTransaction(dataSource.getConnection(), key);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not open a connection for bucket " + key, e);
+        }
+    }
+
+    private static final class JdbcTransaction implements SelectForUpdateBasedTransaction {
+        private final Connection connection;
+        private final String key;
+
+        private JdbcTransaction(Connection connection, String key) {
+            this.connection = connection;
+            this.key = key;
+        }
+
+        @Override
+        public void begin() {
+            try {
+                connection.setAutoCommit(false);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public LockAndGetResult tryLockAndGet() {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT STATE FROM " + TABLE + " WHERE ID = ? FOR UPDATE")) {
+                statement.setString(1, key);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? LockAndGetResult.locked(resultSet.getBytes(1)) : LockAndGetResult.notLocked();
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public boolean tryInsertEmptyData() {
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + TABLE + " (ID) VALUES (?)")) {
+                statement.setString(1, key);
+                return statement.executeUpdate() > 0;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // Another instance inserted the row first, it is locked on the next attempt
+                return false;
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void update(byte[] data, RemoteBucketState newState) {
+            try (PreparedStatement statement = connection.prepareStatement("UPDATE " + TABLE + " SET STATE = ? WHERE ID = ?")) {
+                statement.setBytes(1, data);
+                statement.setString(2, key);
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void commit() {
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void rollback() {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void release() {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
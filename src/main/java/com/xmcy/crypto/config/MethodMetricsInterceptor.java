@@ -0,0 +1,92 @@
+package com.xmcy.crypto.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call it intercepts in {@code <name>.invocations}, with a percentile histogram, and records how many
+ * rows a call returned in {@code <name>.result.rows}, both tagged with the class and method. Only collections,
+ * maps, optionals and pages count as rows, so a query whose row count keeps climbing with the table shows up
+ * next to its latency.
+ */
+class MethodMetricsInterceptor implements MethodInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final String name;
+    private final String className;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    MethodMetricsInterceptor(MeterRegistry meterRegistry, String name, String className) {
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+        this.className = className;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Meters methodMeters = meters.computeIfAbsent(method, this::register);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            timer(method, e.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        methodMeters.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        long rows = rows(result);
+        if (rows >= 0) {
+            methodMeters.rows.record(rows);
+        }
+        return result;
+    }
+
+    private Meters register(Method method) {
+        DistributionSummary rows = DistributionSummary.builder(name + ".result.rows")
+                .tag("class", className)
+                .tag("method", method.getName())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        return new Meters(timer(method, "none"), rows);
+    }
+
+    private Timer timer(Method method, String exception) {
+        return Timer.builder(name + ".invocations")
+                .tag("class", className)
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        return -1;
+    }
+
+    private record Meters(Timer timer, DistributionSummary rows) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.xmcy.crypto.config;
+
+import com.xmcy.crypto.service.CryptoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Instruments the service and repository hot paths with {@link MethodMetricsInterceptor}: every public
+ * {@link CryptoService} method as {@code crypto.service.*} and every repository query as
+ * {@code crypto.repository.*}. Spring Boot's own repository timer is switched off in favour of the latter.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    static BeanPostProcessor cryptoServiceMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new AbstractBeanFactoryAwareAdvisingPostProcessor() {
+            {
+                setBeforeExistingAdvisors(true);
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // The registry is looked up on the first match, it is itself still being created before that
+                if (!CryptoService.class.isAssignableFrom(AopUtils.getTargetClass(bean))) {
+                    return bean;
+                }
+                if (advisor == null) {
+                    advisor = new DefaultPointcutAdvisor(new PublicMethodPointcut(CryptoService.class),
+                            new MethodMetricsInterceptor(meterRegistry.getObject(), "crypto.service",
+                                    CryptoService.class.getSimpleName()));
+                }
+                return super.postProcessAfterInitialization(bean, beanName);
+            }
+        };
+    }
+
+    @Bean
+    static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new MethodMetricsInterceptor(meterRegistry.getObject(),
+                                            "crypto.repository",
+                                            repositoryInformation.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static final class PublicMethodPointcut extends StaticMethodMatcherPointcut {
+        private final Class<?> type;
+
+        private PublicMethodPointcut(Class<?> type) {
+            this.type = type;
+            setClassFilter(type::isAssignableFrom);
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return method.getDeclaringClass() == type && Modifier.isPublic(method.getModifiers());
+        }
+    }
+}
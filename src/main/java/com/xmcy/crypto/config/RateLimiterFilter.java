@@ -1,56 +1,118 @@
 package com.xmcy.crypto.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpFilter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
-import io.github.bucket4j.Refill;
-import io.github.bucket4j.Bandwidth;
-
+import org.springframework.util.AntPathMatcher;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Per client IP token bucket. Buckets live in a bounded cache and are dropped once idle for a whole refill period,
+ * by then they would be full again anyway, so eviction never lets a client through early.
+ * <p>
+ * With a {@link JdbcBucketProxyManager} configured (see {@link DistributedRateLimitConfig}) the cached buckets are
+ * proxies of buckets shared through the database.
+ */
 @Component
 public class RateLimiterFilter extends HttpFilter {
 
-    @Value("${rate.limiter.requests}")
-    private int requests;
-
-    @Value("${rate.limiter.duration}")
-    private int durationValue;
-
-    @Value("${rate.limiter.duration.unit}")
-    private String durationUnit;
+    private final BucketConfiguration configuration;
+    private final JdbcBucketProxyManager proxyManager;
+    private final List<RouteCost> routeCosts = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Cache<String, Bucket> buckets;
+    private final Counter allowed;
+    private final Counter rejected;
 
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    public RateLimiterFilter(@Value("${rate.limiter.requests}") int requests,
+                             @Value("${rate.limiter.duration}") int durationValue,
+                             @Value("${rate.limiter.duration.unit}") String durationUnit,
+                             @Value("${rate.limiter.max.buckets}") long maxBuckets,
+                             @Value("#{${rate.limiter.costs}}") Map<String, Integer> costs,
+                             Optional<JdbcBucketProxyManager> proxyManager,
+                             MeterRegistry meterRegistry) {
+        Duration duration = Duration.of(durationValue, ChronoUnit.valueOf(durationUnit.toUpperCase()));
+        this.configuration = BucketConfiguration.builder()
+                .addLimit(Bandwidth.classic(requests, Refill.greedy(requests, duration)))
+                .build();
+        this.proxyManager = proxyManager.orElse(null);
+        costs.forEach((pattern, cost) -> {
+            if (cost < 1 || cost > requests) {
+                throw new IllegalArgumentException("Cost of " + pattern + " must be between 1 and " + requests + ": " + cost);
+            }
+            routeCosts.add(new RouteCost(pattern, cost));
+        });
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(duration)
+                .build();
+        this.allowed = Counter.builder("rate.limiter.requests").tag("result", "allowed").register(meterRegistry);
+        this.rejected = Counter.builder("rate.limiter.requests").tag("result", "rejected").register(meterRegistry);
+        Gauge.builder("rate.limiter.buckets", buckets, Cache::estimatedSize).register(meterRegistry);
+    }
 
     @Override
     protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws IOException, ServletException {
-        String ip = request.getRemoteAddr();
-        Bucket bucket = buckets.computeIfAbsent(ip, this::newBucket);
+        Bucket bucket = buckets.get(request.getRemoteAddr(), this::newBucket);
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(costOf(request.getRequestURI()));
 
-        if (bucket.tryConsume(1)) {
+        if (probe.isConsumed()) {
+            allowed.increment();
             chain.doFilter(request, response);
         } else {
+            rejected.increment();
             response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1));
             response.getWriter().write("Too many requests");
         }
     }
 
+    long costOf(String path) {
+        for (RouteCost routeCost : routeCosts) {
+            if (pathMatcher.match(routeCost.pattern(), path)) {
+                return routeCost.cost();
+            }
+        }
+        return 1;
+    }
+
+    long bucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
     private Bucket newBucket(String ip) {
-        Duration duration = Duration.of(this.durationValue, ChronoUnit.valueOf(this.durationUnit.toUpperCase()));
-        Refill refill = Refill.greedy(requests, duration);
-        Bandwidth limit = Bandwidth.classic(requests, refill);
-        return Bucket.builder().addLimit(limit).build();
+        if (proxyManager != null) {
+            return proxyManager.bucket(ip, configuration);
+        }
+        return Bucket.builder().addLimit(configuration.getBandwidths()[0]).build();
     }
 
+    private record RouteCost(String pattern, int cost) {
+    }
 }
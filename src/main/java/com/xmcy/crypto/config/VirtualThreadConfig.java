@@ -0,0 +1,93 @@
+package com.xmcy.crypto.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Opt-in mode, enabled with the virtual-threads profile, that runs Tomcat request handling, the startup CSV load,
+ * batch sub-queries, upload jobs and tick stream sends on virtual threads instead of platform thread pools.
+ * The build targets Java 17, so the Java 21 API is reached reflectively and the profile fails fast on older runtimes.
+ */
+@Configuration
+@Profile(VirtualThreadConfig.PROFILE)
+public class VirtualThreadConfig {
+
+    public static final String PROFILE = "virtual-threads";
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = newThreadPerTaskExecutor(virtualThreadFactory("http-vt-"));
+        logger.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    // Same bean names as the platform pools in Config; the concurrency limits keep the H2 load of each as before
+    @Bean
+    SimpleAsyncTaskExecutor dataLoaderExecutor(@Value("${data.loader.threads}") int threads) {
+        return limitedVirtualExecutor("data-loader-vt-", threads);
+    }
+
+    @Bean
+    SimpleAsyncTaskExecutor batchQueryExecutor(@Value("${batch.query.threads}") int threads) {
+        return limitedVirtualExecutor("batch-query-vt-", threads);
+    }
+
+    // Queued like the platform pool: a concurrency limit would block the request submitting the job until one ends
+    @Bean
+    ThreadPoolTaskExecutor uploadJobExecutor(@Value("${upload.job.concurrency}") int concurrency,
+                                             @Value("${upload.job.queue.capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadFactory(virtualThreadFactory("upload-job-vt-"));
+        return executor;
+    }
+
+    // No limit: at most one drain runs per subscriber and it never waits on the client
+    @Bean
+    SimpleAsyncTaskExecutor streamExecutor() {
+        return new SimpleAsyncTaskExecutor(virtualThreadFactory("tick-stream-vt-"));
+    }
+
+    private static SimpleAsyncTaskExecutor limitedVirtualExecutor(String prefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(virtualThreadFactory(prefix));
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
+    }
+
+    static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = ofVirtual.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) ofVirtual.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("The " + PROFILE + " profile needs Java 21 or newer, running on "
+                    + Runtime.version(), e);
+        }
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("The " + PROFILE + " profile needs Java 21 or newer, running on "
+                    + Runtime.version(), e);
+        }
+    }
+}
@@ -1,23 +1,43 @@
 package com.xmcy.crypto.controller;
 
+import com.xmcy.crypto.helper.CryptoExporter;
+import com.xmcy.crypto.model.BatchRequest;
+import com.xmcy.crypto.model.BatchResponse;
+import com.xmcy.crypto.model.CalendarMonth;
+import com.xmcy.crypto.model.Candle;
+import com.xmcy.crypto.model.CandleResolution;
 import com.xmcy.crypto.model.Crypto;
-import com.xmcy.crypto.model.CryptoType;
-import com.xmcy.crypto.model.Months;
+import com.xmcy.crypto.model.CryptoPage;
+import com.xmcy.crypto.model.CryptoSymbol;
+import com.xmcy.crypto.model.PriceRange;
+import com.xmcy.crypto.model.Recommendation;
+import com.xmcy.crypto.model.RecommendationSignal;
 import com.xmcy.crypto.model.SortDirection;
+import com.xmcy.crypto.service.BatchQueryService;
 import com.xmcy.crypto.service.CryptoService;
+import com.xmcy.crypto.service.TickStreamService;
+import com.xmcy.crypto.store.SymbolRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.xmcy.crypto.exception.CryptoNotFoundException;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/crypto")
@@ -25,11 +45,45 @@ import java.util.Optional;
 @Validated
 public class CryptoController {
     private final CryptoService cryptoService;
+    private final CryptoExporter cryptoExporter;
+    private final BatchQueryService batchQueryService;
+    private final TickStreamService tickStreamService;
+    private final SymbolRegistry symbolRegistry;
 
-    @Operation(summary = "View a list of available cryptocurrencies")
+    @Operation(
+        summary = "View a page of available cryptocurrencies",
+        description = "Returns cryptocurrencies ordered by timing and id, pass nextCursor back as cursor to get the following page"
+    )
     @GetMapping
-    public List<Crypto> getAllCryptos() {
-        return cryptoService.getAllCryptos();
+    public CryptoPage getAllCryptos(
+            @Parameter(description  = "Maximum number of items in the page (at most " + CryptoService.MAX_PAGE_LIMIT + ")")
+            @RequestParam(defaultValue = "" + CryptoService.DEFAULT_PAGE_LIMIT) int limit,
+            @Parameter(description  = "Continuation token returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor) {
+        return cryptoService.getCryptoPage(limit, cursor);
+    }
+
+    @Operation(
+        summary = "Export all cryptocurrencies",
+        description = "Streams every cryptocurrency as a JSON array straight from a database cursor"
+    )
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAllCryptos() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cryptoExporter::exportAll);
+    }
+
+    @Operation(
+        summary = "Export all cryptocurrencies in the binary tick format",
+        description = "Streams every tick in the format accepted by POST /api/upload/binary, "
+                + "delta-of-delta encoded timings and XOR compressed prices in blocks per symbol"
+    )
+    @GetMapping(value = "/export/binary", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAllCryptosBinary() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(cryptoExporter::exportBinary);
     }
 
     @Operation(summary = "Get a cryptocurrency by ID")
@@ -50,6 +104,10 @@ public class CryptoController {
             @ApiResponse(
                 responseCode = "400",
                 description = "Invalid cryptocurrency data"
+            ),
+            @ApiResponse(
+                responseCode = "409",
+                description = "A cryptocurrency with the same name and timing already exists"
             )
         }
     )
@@ -59,6 +117,73 @@ public class CryptoController {
         return cryptoService.addCrypto(crypto);
     }
 
+    @Operation(
+        summary = "List the supported cryptocurrencies",
+        description = "Lists the cryptocurrencies ticks are accepted for, with their symbol and id"
+    )
+    @GetMapping("/symbols")
+    public List<CryptoSymbol> getSymbols() {
+        return symbolRegistry.symbols();
+    }
+
+    @Operation(
+        summary = "Add a supported cryptocurrency",
+        description = "Registers a cryptocurrency so its ticks are accepted without a redeploy. It lasts until the next restart, "
+                + "add it to crypto.symbols to keep it",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Cryptocurrency registered, or already registered with the same name and symbol"
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Name or symbol missing or taken by another cryptocurrency"
+            )
+        }
+    )
+    @PostMapping("/symbols")
+    public CryptoSymbol addSymbol(
+            @Parameter(description  = "Name of the cryptocurrency, e.g. Solana", required = true) @RequestParam String name,
+            @Parameter(description  = "Symbol of the cryptocurrency, e.g. SOL", required = true) @RequestParam String symbol) {
+        return symbolRegistry.register(name, symbol);
+    }
+
+    @Operation(
+        summary = "Stream new ticks",
+        description = "Server-sent events stream with a 'tick' event for every tick added through the API or an upload. "
+                + "Slow clients skip to the latest tick per symbol instead of buffering"
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamTicks(
+            @Parameter(description  = "Names or symbols of the cryptocurrencies to stream, all when omitted") @RequestParam(required = false) List<String> symbols,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Set<String> names = symbols == null ? null : symbols.stream()
+                .map(symbolRegistry::name)
+                .collect(Collectors.toSet());
+        tickStreamService.subscribe(names, request, response);
+    }
+
+    @Operation(
+        summary = "Run several queries in one request",
+        description = "Runs typed sub-queries (min, max, oldest, newest, normalized value, by month, by days, range) in parallel "
+                + "and looks up cryptocurrencies by id, returning one combined response. Each sub-query reports its own error",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Batch executed"
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Too many queries in the batch"
+            )
+        }
+    )
+    @PostMapping("/batch")
+    public BatchResponse batch(
+            @Parameter(description  = "Sub-queries and ids to look up", required = true) @RequestBody BatchRequest request) {
+        return batchQueryService.execute(request);
+    }
+
     @Operation(
         summary = "Update an existing cryptocurrency",
         description = "Updates the details of an existing cryptocurrency",
@@ -70,6 +195,10 @@ public class CryptoController {
             @ApiResponse(
                 responseCode = "404",
                 description = "Cryptocurrency not found"
+            ),
+            @ApiResponse(
+                responseCode = "409",
+                description = "A cryptocurrency with the same name and timing already exists"
             )
         }
     )
@@ -102,17 +231,37 @@ public class CryptoController {
 
     @Operation(
         summary = "Get cryptocurrency recommendations",
-        description = "Retrieves a list of recommended cryptocurrencies",
+        description = "Retrieves the latest tick of every cryptocurrency with the given recommendation, strongest signal first",
         responses = {
             @ApiResponse(
                 responseCode = "200",
                 description = "Recommendations retrieved successfully"
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Invalid recommendation"
             )
         }
     )
     @GetMapping("/recommendations")
-    public List<Crypto> getRecommendations() {
-        return cryptoService.getRecommendations();
+    public List<Crypto> getRecommendations(
+            @Parameter(description  = "Recommendation (buy, hold or sell)") @RequestParam(defaultValue = "buy") String recommendation) {
+        return cryptoService.getRecommendations(Recommendation.fromString(recommendation));
+    }
+
+    @Operation(
+        summary = "Get the recommendation signals",
+        description = "Retrieves the recommendation of every cryptocurrency with the normalized range, momentum and score it was computed from",
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Signals retrieved successfully"
+            )
+        }
+    )
+    @GetMapping("/recommendations/signals")
+    public List<RecommendationSignal> getRecommendationSignals() {
+        return cryptoService.getRecommendationSignals();
     }
 
     @Operation(
@@ -132,7 +281,7 @@ public class CryptoController {
     @GetMapping("/min/{name}")
     public Crypto getCryptoWithMinValueByName(
             @Parameter(description  = "Name of the cryptocurrency to retrieve the minimum value for", required = true) @PathVariable String name) {
-        return cryptoService.getCryptoWithMinValueByName(CryptoType.findByName(name).getName())
+        return cryptoService.getCryptoWithMinValueByName(symbolRegistry.name(name))
                 .orElseThrow(() -> new RuntimeException("No cryptocurrency found with the name: " + name));
     }
 
@@ -153,7 +302,7 @@ public class CryptoController {
     @GetMapping("/max/{name}")
     public Crypto getCryptoWithMaxValueByName(
             @Parameter(description  = "Name of the cryptocurrency to retrieve the maximum value for", required = true) @PathVariable String name) {
-        return cryptoService.getCryptoWithMaxValueByName(CryptoType.findByName(name).getName())
+        return cryptoService.getCryptoWithMaxValueByName(symbolRegistry.name(name))
                 .orElseThrow(() -> new CryptoNotFoundException("No cryptocurrency found with the name: " + name));
     }
 
@@ -232,7 +381,7 @@ public class CryptoController {
     @GetMapping("/oldest/{name}")
     public Crypto getOldestCryptoByName(
             @Parameter(description  = "Name of the cryptocurrency to retrieve the oldest value for", required = true) @PathVariable String name) {
-        return cryptoService.getOldestCryptoByName(CryptoType.findByName(name).getName())
+        return cryptoService.getOldestCryptoByName(symbolRegistry.name(name))
                 .orElseThrow(() -> new CryptoNotFoundException("No cryptocurrency found with the name: " + name));
     }
 
@@ -253,7 +402,7 @@ public class CryptoController {
     @GetMapping("/newest/{name}")
     public Crypto getNewestCryptoByName(
             @Parameter(description  = "Name of the cryptocurrency to retrieve the newest value for", required = true) @PathVariable String name) {
-        return cryptoService.getNewestCryptoByName(CryptoType.findByName(name).getName())
+        return cryptoService.getNewestCryptoByName(symbolRegistry.name(name))
                 .orElseThrow(() -> new CryptoNotFoundException("No cryptocurrency found with the name: " + name));
     }
 
@@ -314,7 +463,7 @@ public class CryptoController {
     public List<Crypto> getCryptosSortedByTiming(
             @Parameter(description  = "Name of the cryptocurrency to sort", required = true) @RequestParam String name,
             @Parameter(description  = "Sort direction (asc or desc)", required = true) @RequestParam String sortDirection) {
-        return cryptoService.getCryptosSortedByTiming(CryptoType.findByName(name).getName(), SortDirection.fromString(sortDirection));
+        return cryptoService.getCryptosSortedByTiming(symbolRegistry.name(name), SortDirection.fromString(sortDirection));
     }
 
     @Operation(
@@ -354,7 +503,7 @@ public class CryptoController {
     public Map<String, Double> getNormalizedValuesByName(
             @Parameter(description  = "Name of the cryptocurrency to retrieve normalized values for", required = true)
             @PathVariable String name) {
-        return cryptoService.getNormalizedValuesByName(CryptoType.findByName(name).getName());
+        return cryptoService.getNormalizedValuesByName(symbolRegistry.name(name));
     }
 
     @Operation(
@@ -374,8 +523,10 @@ public class CryptoController {
     @GetMapping("/oldest/{name}/{month}")
     public Crypto getOldestCryptoByNameAndMonth(
             @Parameter(description  = "Name of the cryptocurrency to retrieve the oldest value for", required = true) @PathVariable String name,
-            @Parameter(description  = "Month to compare with timing", required = true) @PathVariable int month) {
-        return cryptoService.getOldestCryptoByNameAndMonth(CryptoType.findByName(name).getName(), Months.fromValue(month))
+            @Parameter(description  = "Month to compare with timing", required = true) @PathVariable int month,
+            @Parameter(description  = "Year of the month, the current year if omitted") @RequestParam(required = false) Integer year,
+            @Parameter(description  = "Time zone the month is taken in, e.g. Europe/London, the server's zone if omitted") @RequestParam(required = false) String zone) {
+        return cryptoService.getOldestCryptoByNameAndMonth(symbolRegistry.name(name), CalendarMonth.of(year, month, zone))
                 .orElseThrow(() -> new CryptoNotFoundException("No cryptocurrency found with the name: " + name + " and month: " + month));
     }
 
@@ -396,8 +547,10 @@ public class CryptoController {
     @GetMapping("/newest/{name}/{month}")
     public Crypto getNewestCryptoByNameAndMonth(
             @Parameter(description  = "Name of the cryptocurrency to retrieve the newest value for", required = true) @PathVariable String name,
-            @Parameter(description  = "Month to compare with timing", required = true) @PathVariable int month) {
-        return cryptoService.getNewestCryptoByNameAndMonth(CryptoType.findByName(name).getName(), Months.fromValue(month))
+            @Parameter(description  = "Month to compare with timing", required = true) @PathVariable int month,
+            @Parameter(description  = "Year of the month, the current year if omitted") @RequestParam(required = false) Integer year,
+            @Parameter(description  = "Time zone the month is taken in, e.g. Europe/London, the server's zone if omitted") @RequestParam(required = false) String zone) {
+        return cryptoService.getNewestCryptoByNameAndMonth(symbolRegistry.name(name), CalendarMonth.of(year, month, zone))
                 .orElseThrow(() -> new CryptoNotFoundException("No cryptocurrency found with the name: " + name + " and month: " + month));
     }
 
@@ -418,8 +571,10 @@ public class CryptoController {
     @GetMapping("/max/{name}/{month}")
     public Crypto getCryptoWithMaxValueByNameAndMonth(
             @Parameter(description  = "Name of the cryptocurrency to retrieve the maximum value for", required = true) @PathVariable String name,
-            @Parameter(description  = "Month to compare with timing", required = true) @PathVariable int month) {
-        return cryptoService.getCryptoWithMaxValueByNameAndMonth(CryptoType.findByName(name).getName(), Months.fromValue(month))
+            @Parameter(description  = "Month to compare with timing", required = true) @PathVariable int month,
+            @Parameter(description  = "Year of the month, the current year if omitted") @RequestParam(required = false) Integer year,
+            @Parameter(description  = "Time zone the month is taken in, e.g. Europe/London, the server's zone if omitted") @RequestParam(required = false) String zone) {
+        return cryptoService.getCryptoWithMaxValueByNameAndMonth(symbolRegistry.name(name), CalendarMonth.of(year, month, zone))
                 .orElseThrow(() -> new CryptoNotFoundException("No cryptocurrency found with the name: " + name + " and month: " + month));
     }
 
@@ -440,11 +595,40 @@ public class CryptoController {
     @GetMapping("/min/{name}/{month}")
     public Crypto getCryptoWithMinValueByNameAndMonth(
             @Parameter(description  = "Name of the cryptocurrency to retrieve the minimum value for", required = true) @PathVariable String name,
-            @Parameter(description  = "Month to compare with timing", required = true) @PathVariable int month) {
-        return cryptoService.getCryptoWithMinValueByNameAndMonth(CryptoType.findByName(name).getName(), Months.fromValue(month))
+            @Parameter(description  = "Month to compare with timing", required = true) @PathVariable int month,
+            @Parameter(description  = "Year of the month, the current year if omitted") @RequestParam(required = false) Integer year,
+            @Parameter(description  = "Time zone the month is taken in, e.g. Europe/London, the server's zone if omitted") @RequestParam(required = false) String zone) {
+        return cryptoService.getCryptoWithMinValueByNameAndMonth(symbolRegistry.name(name), CalendarMonth.of(year, month, zone))
                 .orElseThrow(() -> new CryptoNotFoundException("No cryptocurrency found with the name: " + name + " and month: " + month));
     }
 
+    @Operation(
+            summary = "Get the price range of a cryptocurrency between two points in time",
+            description = "Get the first, last, minimum and maximum tick and the normalized range ((max-min)/min) of a cryptocurrency within [from, to]",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Price range retrieved successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid time range"
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "No cryptocurrency data within the time range"
+                    )
+            }
+    )
+    @GetMapping("/range/{name}")
+    public PriceRange getPriceRange(
+            @Parameter(description  = "Name of the cryptocurrency to retrieve the price range for", required = true) @PathVariable String name,
+            @Parameter(description  = "Start of the time range in epoch milliseconds", required = true) @RequestParam long from,
+            @Parameter(description  = "End of the time range in epoch milliseconds", required = true) @RequestParam long to) {
+        return cryptoService.getPriceRange(symbolRegistry.name(name), from, to)
+                .orElseThrow(() -> new CryptoNotFoundException("No cryptocurrency found with the name: " + name + " between " + from + " and " + to));
+    }
+
     @Operation(
             summary = "Get the cryptocurrency with the highest normalization value for a given date",
             description = "Get the cryptocurrency with the highest normalization value for a given date",
@@ -484,7 +668,7 @@ public class CryptoController {
     public Crypto getCryptoWithHighestNormalizationByNameAndLastNoOfDays(
             @Parameter(description  = "Name of the cryptocurrency to retrieve the highest normalization value for", required = true) @PathVariable String name,
             @Parameter(description  = "Last number of days to compare with timing", required = true) @PathVariable int lastNoOfDays) {
-        return cryptoService.getCryptoWithHighestNormalizationByNameAndDays(CryptoType.findByName(name).getName(), lastNoOfDays)
+        return cryptoService.getCryptoWithHighestNormalizationByNameAndDays(symbolRegistry.name(name), lastNoOfDays)
                 .orElseThrow(() -> new CryptoNotFoundException("No cryptocurrency found with the name: " + name + " and last number of days: " + lastNoOfDays));
     }
 
@@ -506,7 +690,7 @@ public class CryptoController {
     public Crypto getCryptoWithMinValueByNameAndLastNoOfDays(
             @Parameter(description  = "Name of the cryptocurrency to retrieve the minimum value for", required = true) @PathVariable String name,
             @Parameter(description  = "Last number of days to compare with timing", required = true) @PathVariable int lastNoOfDays) {
-        return cryptoService.getCryptoWithMinValueByNameAndDays(CryptoType.findByName(name).getName(), lastNoOfDays)
+        return cryptoService.getCryptoWithMinValueByNameAndDays(symbolRegistry.name(name), lastNoOfDays)
                 .orElseThrow(() -> new CryptoNotFoundException("No cryptocurrency found with the name: " + name + " and last number of days: " + lastNoOfDays));
     }
 
@@ -528,8 +712,31 @@ public class CryptoController {
     public Crypto getCryptoWithMaxValueByNameAndLastNoOfDays(
             @Parameter(description  = "Name of the cryptocurrency to retrieve the maximum value for", required = true) @PathVariable String name,
             @Parameter(description  = "Last number of days to compare with timing", required = true) @PathVariable int lastNoOfDays) {
-        return cryptoService.getCryptoWithMaxValueByNameAndDays(CryptoType.findByName(name).getName(), lastNoOfDays)
+        return cryptoService.getCryptoWithMaxValueByNameAndDays(symbolRegistry.name(name), lastNoOfDays)
                 .orElseThrow(() -> new CryptoNotFoundException("No cryptocurrency found with the name: " + name + " and last number of days: " + lastNoOfDays));
     }
 
-}
\ No newline at end of file
+    @Operation(
+            summary = "Get OHLC candles of a cryptocurrency",
+            description = "Get open/high/low/close/count candles of a cryptocurrency at hourly, daily or monthly resolution",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Candles retrieved successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid candle resolution"
+                    )
+            }
+    )
+    @GetMapping("/candles/{name}")
+    public List<Candle> getCandles(
+            @Parameter(description  = "Name of the cryptocurrency to retrieve candles for", required = true) @PathVariable String name,
+            @Parameter(description  = "Candle resolution (hourly, daily or monthly)") @RequestParam(defaultValue = "daily") String resolution,
+            @Parameter(description  = "Start of the time range in epoch milliseconds") @RequestParam(defaultValue = "0") long from,
+            @Parameter(description  = "End of the time range in epoch milliseconds") @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to) {
+        return cryptoService.getCandles(symbolRegistry.name(name), CandleResolution.fromString(resolution), from, to);
+    }
+
+}
@@ -1,18 +1,22 @@
 package com.xmcy.crypto.controller;
 
+import com.xmcy.crypto.helper.BinaryTickParser;
 import com.xmcy.crypto.helper.CsvParser;
 import com.xmcy.crypto.helper.DataInserter;
-import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.model.IngestResult;
+import com.xmcy.crypto.model.UploadJob;
+import com.xmcy.crypto.service.UploadJobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -21,11 +25,17 @@ import java.util.List;
 public class DataUploadController {
 
     private final CsvParser csvParser;
+    private final BinaryTickParser binaryTickParser;
     private final DataInserter dataInserter;
+    private final UploadJobService uploadJobService;
+
+    @Value("${upload.csv.batch.size}")
+    private int batchSize;
 
     @Operation(
         summary = "Upload CSV data",
-        description = "Uploads CSV data and inserts it into the database",
+        description = "Uploads CSV data and upserts it on (timing, name). Reports how many rows were inserted, "
+                + "updated with a new price and skipped as already stored",
         responses = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                 responseCode = "200",
@@ -38,13 +48,81 @@ public class DataUploadController {
         }
     )
     @PostMapping("/csv")
-    public ResponseEntity<String> uploadCsvData(
-            @Parameter(description = "CSV content as a string", required = true)
-            @RequestBody String csvContent) {
-        ByteArrayInputStream inputStream = new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8));
-        Resource resource = new InputStreamResource(inputStream);
-        List<Crypto> cryptos = csvParser.parseCsv(resource);
-        dataInserter.insertData(cryptos);
-        return ResponseEntity.ok("CSV data uploaded successfully");
+    public ResponseEntity<IngestResult> uploadCsvData(
+            @Parameter(description = "CSV content, streamed from the request body", required = true)
+            InputStream csvContent) {
+        List<IngestResult> results = new ArrayList<>();
+        csvParser.parseCsv(csvContent, batchSize, batch -> results.add(dataInserter.insertData(batch)));
+        return ResponseEntity.ok(results.stream().reduce(IngestResult.EMPTY, IngestResult::plus));
+    }
+
+    @Operation(
+        summary = "Upload binary tick data",
+        description = "Uploads ticks in the binary tick format (see GET /api/crypto/export/binary and "
+                + "TickCsvConverter) and upserts them like the CSV upload",
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "200",
+                description = "Binary data uploaded successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "400",
+                description = "Malformed binary data"
+            )
+        }
+    )
+    @PostMapping(value = "/binary", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<IngestResult> uploadBinaryData(
+            @Parameter(description = "Binary tick data, streamed from the request body", required = true)
+            InputStream binaryContent) {
+        List<IngestResult> results = new ArrayList<>();
+        binaryTickParser.parseBinary(binaryContent, batchSize, batch -> results.add(dataInserter.insertData(batch)));
+        return ResponseEntity.ok(results.stream().reduce(IngestResult.EMPTY, IngestResult::plus));
+    }
+
+    @Operation(
+        summary = "Submit a CSV upload job",
+        description = "Stores the CSV data and inserts it in the background. Lines that cannot be parsed are skipped "
+                + "and reported on the job",
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "202",
+                description = "Upload job accepted"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "413",
+                description = "CSV data larger than upload.job.max.size"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "503",
+                description = "Too many upload jobs queued"
+            )
+        }
+    )
+    @PostMapping("/jobs")
+    public ResponseEntity<UploadJob> submitUploadJob(
+            @Parameter(description = "CSV content, streamed from the request body", required = true)
+            InputStream csvContent) {
+        UploadJob job = uploadJobService.submit(csvContent);
+        return ResponseEntity.accepted().location(URI.create("/api/upload/jobs/" + job.id())).body(job);
+    }
+
+    @Operation(
+        summary = "Get an upload job",
+        description = "Status, processed and rejected rows and throughput of an upload job",
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "200",
+                description = "Upload job found"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "404",
+                description = "Upload job not found or expired"
+            )
+        }
+    )
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<UploadJob> getUploadJob(@Parameter(description = "Id of the upload job") @PathVariable String id) {
+        return ResponseEntity.ok(uploadJobService.getJob(id));
     }
 }
@@ -0,0 +1,7 @@
+package com.xmcy.crypto.exception;
+
+public class CryptoAlreadyExistsException extends RuntimeException {
+    public CryptoAlreadyExistsException(String message) {
+        super(message);
+    }
+}
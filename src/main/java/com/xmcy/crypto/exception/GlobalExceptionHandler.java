@@ -19,6 +19,11 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(CryptoAlreadyExistsException.class)
+    public ResponseEntity<?> handleCryptoAlreadyExistsException(CryptoAlreadyExistsException ex, WebRequest request) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(CryptoNotSupportedException.class)
     public ResponseEntity<?> handleCryptoNotSupportedException(CryptoNotSupportedException ex, WebRequest request) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
@@ -29,6 +34,36 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ZoneNotSupportedException.class)
+    public ResponseEntity<?> handleZoneNotSupportedException(ZoneNotSupportedException ex, WebRequest request) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ResolutionNotSupportedException.class)
+    public ResponseEntity<?> handleResolutionNotSupportedException(ResolutionNotSupportedException ex, WebRequest request) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(RecommendationNotSupportedException.class)
+    public ResponseEntity<?> handleRecommendationNotSupportedException(RecommendationNotSupportedException ex, WebRequest request) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(UploadJobNotFoundException.class)
+    public ResponseEntity<?> handleUploadJobNotFoundException(UploadJobNotFoundException ex, WebRequest request) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(UploadJobRejectedException.class)
+    public ResponseEntity<?> handleUploadJobRejectedException(UploadJobRejectedException ex, WebRequest request) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(UploadTooLargeException.class)
+    public ResponseEntity<?> handleUploadTooLargeException(UploadTooLargeException ex, WebRequest request) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGlobalException(Exception ex, WebRequest request) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -0,0 +1,7 @@
+package com.xmcy.crypto.exception;
+
+public class RecommendationNotSupportedException extends RuntimeException {
+    public RecommendationNotSupportedException(String message) {
+        super(message);
+    }
+}
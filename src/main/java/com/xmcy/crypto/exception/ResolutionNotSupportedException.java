@@ -0,0 +1,7 @@
+package com.xmcy.crypto.exception;
+
+public class ResolutionNotSupportedException extends RuntimeException {
+    public ResolutionNotSupportedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.xmcy.crypto.exception;
+
+public class UploadJobNotFoundException extends RuntimeException {
+    public UploadJobNotFoundException(String message) {
+        super(message);
+    }
+}
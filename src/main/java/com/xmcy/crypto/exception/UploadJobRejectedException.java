@@ -0,0 +1,7 @@
+package com.xmcy.crypto.exception;
+
+public class UploadJobRejectedException extends RuntimeException {
+    public UploadJobRejectedException(String message) {
+        super(message);
+    }
+}
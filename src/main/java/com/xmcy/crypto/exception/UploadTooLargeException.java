@@ -0,0 +1,7 @@
+package com.xmcy.crypto.exception;
+
+public class UploadTooLargeException extends RuntimeException {
+    public UploadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.xmcy.crypto.exception;
+
+public class ZoneNotSupportedException extends RuntimeException {
+    public ZoneNotSupportedException(String message) {
+        super(message);
+    }
+}
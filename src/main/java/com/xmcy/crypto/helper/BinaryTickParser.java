@@ -0,0 +1,55 @@
+package com.xmcy.crypto.helper;
+
+import com.xmcy.crypto.codec.TickBlock;
+import com.xmcy.crypto.codec.TickReader;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.store.SymbolRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Binary tick format counterpart of {@link CsvParser}: decodes the stream block by block and hands the ticks to
+ * the consumer in batches of at most batchSize.
+ */
+@Component
+@RequiredArgsConstructor
+public class BinaryTickParser {
+
+    private final SymbolRegistry symbolRegistry;
+
+    /**
+     * @return the number of ticks decoded
+     */
+    public long parseBinary(InputStream inputStream, int batchSize, Consumer<List<Crypto>> batchConsumer) {
+        List<Crypto> batch = new ArrayList<>(Math.min(batchSize, 1024));
+        long rows = 0;
+        try {
+            TickReader reader = new TickReader(inputStream);
+            TickBlock block;
+            while ((block = reader.next()) != null) {
+                String name = symbolRegistry.name(block.name());
+                for (int i = 0; i < block.size(); i++) {
+                    batch.add(new Crypto(CsvParser.generateRandomId(), block.timings()[i], name, block.prices()[i], null));
+                    rows++;
+                    if (batch.size() >= batchSize) {
+                        batchConsumer.accept(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading binary tick data", e);
+        }
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,92 @@
+package com.xmcy.crypto.helper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xmcy.crypto.codec.TickWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes the whole CRYPTOS table as a JSON array straight from a database cursor,
+ * so heap use depends on the fetch size and not on the table size.
+ */
+@Component
+public class CryptoExporter {
+
+    private static final String SQL = "SELECT id, timing, name, price, recommendation FROM cryptos ORDER BY timing, id";
+    private static final String BINARY_SQL = "SELECT name, timing, price FROM cryptos ORDER BY name, timing";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public CryptoExporter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                          @Value("${export.fetch.size}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public void exportAll(OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            // The servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> writeRow(generator, resultSet));
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Same as {@link #exportAll(OutputStream)} in the binary tick format, ordered by symbol and timing so each
+     * symbol compresses as one run.
+     */
+    public void exportBinary(OutputStream outputStream) throws IOException {
+        TickWriter writer = new TickWriter(outputStream, TickWriter.DEFAULT_BLOCK_SIZE);
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(BINARY_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                try {
+                    writer.write(resultSet.getString(1), resultSet.getLong(2), resultSet.getDouble(3));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+
+    private void writeRow(JsonGenerator generator, ResultSet resultSet) throws SQLException {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("id", resultSet.getLong("id"));
+            generator.writeNumberField("timing", resultSet.getLong("timing"));
+            generator.writeStringField("name", resultSet.getString("name"));
+            generator.writeNumberField("price", resultSet.getDouble("price"));
+            generator.writeStringField("recommendation", resultSet.getString("recommendation"));
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
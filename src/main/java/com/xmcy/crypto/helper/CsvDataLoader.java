@@ -1,31 +1,99 @@
 package com.xmcy.crypto.helper;
 
-import com.xmcy.crypto.model.Crypto;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class CsvDataLoader {
     private static final Logger logger = LoggerFactory.getLogger(CsvDataLoader.class);
 
     private final CsvParser csvParser;
     private final DataInserter dataInserter;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
 
-    public void loadCsvData(Resource[] resources) {
-        try {
-            for (Resource resource : resources) {
-                List<Crypto> cryptos = csvParser.parseCsv(resource);
-                dataInserter.insertData(cryptos);
-                logger.info("Loaded data from file: {}", resource.getFilename());
+    private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+    private final List<String> failedFiles = new CopyOnWriteArrayList<>();
+
+    public CsvDataLoader(CsvParser csvParser, DataInserter dataInserter,
+                         @Qualifier("dataLoaderExecutor") Executor executor, MeterRegistry meterRegistry,
+                         @Value("${data.loader.batch.size}") int batchSize) {
+        this.csvParser = csvParser;
+        this.dataInserter = dataInserter;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Parses and inserts every resource in parallel on the data loader executor and returns immediately.
+     */
+    public CompletableFuture<Void> loadCsvData(Resource[] resources) {
+        return loadCsvData(resources, () -> { });
+    }
+
+    /**
+     * Same as {@link #loadCsvData(Resource[])}, running afterLoad once every file is inserted and before the load
+     * counts as done.
+     */
+    public CompletableFuture<Void> loadCsvData(Resource[] resources, Runnable afterLoad) {
+        CompletableFuture<?>[] files = Arrays.stream(resources)
+                .map(resource -> CompletableFuture.runAsync(() -> loadFile(resource), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(files).whenComplete((ignored, e) -> {
+            logger.info("Loaded {} CSV files, {} failed", resources.length, failedFiles.size());
+            try {
+                afterLoad.run();
+            } catch (RuntimeException afterLoadFailure) {
+                logger.error("Error completing the data load", afterLoadFailure);
             }
+            loaded.complete(null);
+        });
+        return loaded;
+    }
+
+    public boolean isLoaded() {
+        return loaded.isDone();
+    }
+
+    public List<String> getFailedFiles() {
+        return List.copyOf(failedFiles);
+    }
+
+    private void loadFile(Resource resource) {
+        String file = String.valueOf(resource.getFilename());
+        long start = System.nanoTime();
+        try (InputStream inputStream = resource.getInputStream()) {
+            long rows = csvParser.parseCsv(inputStream, batchSize, dataInserter::restoreData);
+            long elapsed = System.nanoTime() - start;
+            Tags tags = Tags.of("file", file);
+            Timer.builder("csv.load.time").tags(tags).register(meterRegistry).record(elapsed, TimeUnit.NANOSECONDS);
+            double rowsPerSecond = rows * 1e9 / Math.max(elapsed, 1);
+            Gauge.builder("csv.load.rows.per.second", rowsPerSecond, Double::doubleValue)
+                    .tags(tags)
+                    .strongReference(true)
+                    .register(meterRegistry);
+            logger.info("Loaded {} rows from file: {} in {} ms", rows, file, TimeUnit.NANOSECONDS.toMillis(elapsed));
         } catch (Exception e) {
-            logger.error("Error loading CSV data", e);
+            failedFiles.add(file);
+            logger.error("Error loading CSV data from file: {}", file, e);
         }
     }
 }
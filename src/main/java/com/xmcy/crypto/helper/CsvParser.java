@@ -1,57 +1,131 @@
 package com.xmcy.crypto.helper;
 
+import com.xmcy.crypto.exception.CryptoNotFoundException;
+import com.xmcy.crypto.exception.InvalidCryptoDataException;
 import com.xmcy.crypto.model.Crypto;
-import com.xmcy.crypto.model.CryptoType;
+import com.xmcy.crypto.store.SymbolRegistry;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Component
 public class CsvParser {
 
     private static final Logger logger = LoggerFactory.getLogger(CsvParser.class);
 
+    private final SymbolRegistry symbolRegistry;
+    private final Counter parsedRows;
+    private final Counter rejectedRows;
+
+    public CsvParser(SymbolRegistry symbolRegistry, MeterRegistry meterRegistry) {
+        this.symbolRegistry = symbolRegistry;
+        this.parsedRows = Counter.builder("csv.parser.rows").tag("result", "parsed").register(meterRegistry);
+        this.rejectedRows = Counter.builder("csv.parser.rows").tag("result", "rejected").register(meterRegistry);
+    }
+
     public List<Crypto> parseCsv(Resource resource) {
-        List<Crypto> cryptos = new LinkedList<>();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
-            String content = reader.lines().collect(Collectors.joining("\n"));
-            extractCryptosFromContent(content, cryptos);
+        List<Crypto> cryptos = new ArrayList<>();
+        try (InputStream inputStream = resource.getInputStream()) {
+            parseCsv(inputStream, Integer.MAX_VALUE, cryptos::addAll);
         } catch (Exception e) {
             logger.error("Error parsing CSV data", e);
         }
         return cryptos;
     }
 
-    private void extractCryptosFromContent(String content, List<Crypto> cryptos) {
-        String[] lines = content.split("\n");
-        for (int i = 1; i < lines.length; i++) { // Skip header line
-            Crypto crypto = extractCryptoFromString(lines[i]);
-            cryptos.add(crypto);
+    /**
+     * Reads the CSV line by line and hands rows to the consumer in batches of at most batchSize,
+     * so memory use depends on the batch size rather than on the size of the input.
+     *
+     * @return the number of rows parsed
+     */
+    public long parseCsv(InputStream inputStream, int batchSize, Consumer<List<Crypto>> batchConsumer) {
+        return parseCsv(inputStream, batchSize, batchConsumer, null);
+    }
+
+    /**
+     * Like {@link #parseCsv(InputStream, int, Consumer)}, but lines that cannot be parsed are handed to
+     * rejectedLineConsumer as "line number: reason" and skipped instead of failing the whole input.
+     *
+     * @return the number of rows parsed, rejected lines excluded
+     */
+    public long parseCsv(InputStream inputStream, int batchSize, Consumer<List<Crypto>> batchConsumer,
+                         Consumer<String> rejectedLineConsumer) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        List<Crypto> batch = new ArrayList<>(Math.min(batchSize, 1024));
+        long rows = 0;
+        long lineNumber = 1;
+        try {
+            reader.readLine(); // Skip header line
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(extractCryptoFromString(line));
+                } catch (InvalidCryptoDataException | CryptoNotFoundException e) {
+                    if (rejectedLineConsumer == null) {
+                        throw e;
+                    }
+                    rejectedRows.increment();
+                    rejectedLineConsumer.accept(lineNumber + ": " + e.getMessage());
+                    continue;
+                }
+                rows++;
+                if (batch.size() >= batchSize) {
+                    parsedRows.increment(batch.size());
+                    batchConsumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading CSV data", e);
+        }
+        if (!batch.isEmpty()) {
+            parsedRows.increment(batch.size());
+            batchConsumer.accept(batch);
         }
+        return rows;
     }
 
     private Crypto extractCryptoFromString(String line) {
-        String[] values = line.split(",");
-        return new Crypto(
-                generateRandomId(),
-                Long.valueOf(values[0]),
-                CryptoType.findByName(values[1]).getName(),
-                Double.valueOf(values[2]),
-                null // Assuming recommendation is not in the CSV
-        );
+        int firstComma = line.indexOf(',');
+        int secondComma = firstComma < 0 ? -1 : line.indexOf(',', firstComma + 1);
+        if (secondComma < 0) {
+            throw new InvalidCryptoDataException("Invalid CSV line: " + line);
+        }
+        int priceEnd = line.indexOf(',', secondComma + 1);
+        try {
+            return new Crypto(
+                    generateRandomId(),
+                    Long.parseLong(line, 0, firstComma, 10),
+                    symbolRegistry.name(line.substring(firstComma + 1, secondComma)),
+                    Double.parseDouble(line.substring(secondComma + 1, priceEnd < 0 ? line.length() : priceEnd)),
+                    null // Assuming recommendation is not in the CSV
+            );
+        } catch (NumberFormatException e) {
+            throw new InvalidCryptoDataException("Invalid CSV line: " + line);
+        }
     }
 
-    private long generateRandomId() {
+    static long generateRandomId() {
         return UUID.randomUUID().getMostSignificantBits() & 0x7FFFFFFFFFFFFFFFL;
     }
 }
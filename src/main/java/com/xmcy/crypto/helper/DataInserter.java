@@ -1,25 +1,267 @@
 package com.xmcy.crypto.helper;
 
+import com.xmcy.crypto.exception.CryptoAlreadyExistsException;
 import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.model.IngestResult;
+import com.xmcy.crypto.store.TickStore;
+import com.xmcy.crypto.wal.WalRecord;
+import com.xmcy.crypto.wal.WriteAheadLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Upserts ticks on their natural key (timing, name), so uploading the same data again changes nothing.
+ * <p>
+ * The TickStore holds every row of the table, so it tells which keys exist without asking the database: ticks it
+ * does not know are new, ticks it knows at the same price are skipped and the others update the stored row.
+ * Whatever is left goes to the database as one batched MERGE on the unique (timing, name) index.
+ * <p>
+ * Every write of the API goes through here. It is checked against the TickStore under the lock of its symbol,
+ * logged to the {@link WriteAheadLog} and only applied once the log has it.
+ * <p>
+ * Rows are counted in {@code ingest.rows} by result and batch sizes recorded in {@code ingest.batch.size}, both
+ * tagged with the source: {@code api} for {@link #insertData(List)}, {@code restore} for {@link #restoreData(List)}.
+ */
 @Component
 public class DataInserter {
 
+    private static final String MERGE_SQL =
+            "MERGE INTO cryptos (id, timing, name, price, recommendation) KEY (timing, name) "
+                    + "VALUES (:id, :timing, :name, :price, :recommendation)";
+    private static final String INSERT_SQL = "INSERT INTO cryptos (id, timing, name, price, recommendation) "
+            + "VALUES (:id, :timing, :name, :price, :recommendation)";
+    private static final String UPDATE_SQL = "UPDATE cryptos SET timing = :timing, name = :name, price = :price, "
+            + "recommendation = :recommendation WHERE id = :id";
+    private static final String DELETE_SQL = "DELETE FROM cryptos WHERE id = :id";
+    private static final String DELETE_KEY_SQL = "DELETE FROM cryptos WHERE timing = :timing AND name = :name";
+    private static final String DELETE_ALL_SQL = "DELETE FROM cryptos";
+
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TickStore tickStore;
+    private final WriteAheadLog writeAheadLog;
+    // Checking against the TickStore and writing must not interleave with another write of the same symbol
+    private final Map<String, Object> symbolLocks = new ConcurrentHashMap<>();
+    private final IngestMeters apiMeters;
+    private final IngestMeters restoreMeters;
 
-    public DataInserter(NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+    public DataInserter(NamedParameterJdbcTemplate namedParameterJdbcTemplate, TickStore tickStore,
+                        WriteAheadLog writeAheadLog, MeterRegistry meterRegistry) {
         this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.tickStore = tickStore;
+        this.writeAheadLog = writeAheadLog;
+        this.apiMeters = new IngestMeters(meterRegistry, "api");
+        this.restoreMeters = new IngestMeters(meterRegistry, "restore");
+    }
+
+    public IngestResult insertData(List<Crypto> cryptos) {
+        return apiMeters.record(cryptos.size(), insert(cryptos, true));
+    }
+
+    /**
+     * Same as {@link #insertData(List)} without the write-ahead log, for data loaded from a durable source: the
+     * startup CSV files, a snapshot or the log itself.
+     */
+    public IngestResult restoreData(List<Crypto> cryptos) {
+        return restoreMeters.record(cryptos.size(), insert(cryptos, false));
+    }
+
+    /**
+     * Inserts a single tick, with a new id unless it has one.
+     *
+     * @throws CryptoAlreadyExistsException if a tick with the same name and timing exists
+     */
+    public Crypto addData(Crypto crypto) {
+        Crypto row = crypto.id() != null ? crypto
+                : new Crypto(CsvParser.generateRandomId(), crypto.timing(), crypto.name(), crypto.price(),
+                crypto.recommendation());
+        synchronized (symbolLock(row.name())) {
+            checkKeyFree(row);
+            writeAheadLog.write(List.of(WalRecord.put(row)), () -> {
+                namedParameterJdbcTemplate.update(INSERT_SQL, new BeanPropertySqlParameterSource(row));
+                tickStore.add(row);
+            });
+        }
+        return row;
+    }
+
+    /**
+     * Replaces the stored row with the same id, which may move it to another timing or symbol.
+     *
+     * @throws CryptoAlreadyExistsException if another tick holds the updated name and timing
+     */
+    public Crypto updateData(Crypto existing, Crypto updated) {
+        // Both symbols are locked, always in name order
+        String first = existing.name().compareTo(updated.name()) <= 0 ? existing.name() : updated.name();
+        String second = first.equals(existing.name()) ? updated.name() : existing.name();
+        synchronized (symbolLock(first)) {
+            synchronized (symbolLock(second)) {
+                if (!existing.name().equals(updated.name()) || !existing.timing().equals(updated.timing())) {
+                    checkKeyFree(updated);
+                }
+                writeAheadLog.write(List.of(WalRecord.delete(existing), WalRecord.put(updated)), () -> {
+                    namedParameterJdbcTemplate.update(UPDATE_SQL, new BeanPropertySqlParameterSource(updated));
+                    tickStore.update(existing, updated);
+                });
+            }
+        }
+        return updated;
     }
 
-    public void insertData(List<Crypto> cryptos) {
-        String sql = "INSERT INTO cryptos (id, timing, name, price) VALUES (:id, :timing, :name, :price)";
-        SqlParameterSource[] batch = SqlParameterSourceUtils.createBatch(cryptos.toArray());
-        namedParameterJdbcTemplate.batchUpdate(sql, batch);
+    public void deleteData(Crypto existing) {
+        synchronized (symbolLock(existing.name())) {
+            writeAheadLog.write(List.of(WalRecord.delete(existing)), () -> delete(existing));
+        }
+    }
+
+    /**
+     * Deletes the row with the crypto's timing and name, for the write-ahead log replay. Not by id: the startup
+     * CSV load gives its rows new ids on every run, so a logged id may no longer be the stored row's.
+     */
+    public void restoreDelete(Crypto crypto) {
+        synchronized (symbolLock(crypto.name())) {
+            namedParameterJdbcTemplate.update(DELETE_KEY_SQL,
+                    Map.of("timing", crypto.timing(), "name", crypto.name()));
+            tickStore.find(crypto.name(), crypto.timing()).ifPresent(tickStore::remove);
+        }
+    }
+
+    /**
+     * Deletes every row, to undo a restore that failed part way.
+     */
+    public void clearData() {
+        namedParameterJdbcTemplate.update(DELETE_ALL_SQL, Map.of());
+        tickStore.clear();
+    }
+
+    private void delete(Crypto row) {
+        namedParameterJdbcTemplate.update(DELETE_SQL, Map.of("id", row.id()));
+        tickStore.remove(row);
+    }
+
+    private void checkKeyFree(Crypto crypto) {
+        Optional<Crypto> holder = tickStore.find(crypto.name(), crypto.timing());
+        if (holder.isPresent() && !holder.get().id().equals(crypto.id())) {
+            throw new CryptoAlreadyExistsException(
+                    "Crypto already exists for name " + crypto.name() + " and timing " + crypto.timing());
+        }
+    }
+
+    private Object symbolLock(String name) {
+        return symbolLocks.computeIfAbsent(name, key -> new Object());
+    }
+
+    private IngestResult insert(List<Crypto> cryptos, boolean log) {
+        Map<String, List<Crypto>> bySymbol = new LinkedHashMap<>();
+        for (Crypto crypto : cryptos) {
+            bySymbol.computeIfAbsent(String.valueOf(crypto.name()), name -> new ArrayList<>()).add(crypto);
+        }
+        IngestResult result = IngestResult.EMPTY;
+        for (Map.Entry<String, List<Crypto>> symbol : bySymbol.entrySet()) {
+            synchronized (symbolLock(symbol.getKey())) {
+                Upsert upsert = classify(symbol.getValue());
+                if (log && !upsert.writes().isEmpty()) {
+                    writeAheadLog.write(upsert.writes().stream().map(WalRecord::put).toList(), () -> apply(upsert));
+                } else {
+                    apply(upsert);
+                }
+                result = result.plus(upsert.result());
+            }
+        }
+        return result;
+    }
+
+    private Upsert classify(List<Crypto> cryptos) {
+        // Within one batch the last tick of a key wins
+        Map<Long, Crypto> byTiming = new LinkedHashMap<>();
+        for (Crypto crypto : cryptos) {
+            byTiming.put(crypto.timing(), crypto);
+        }
+        long skipped = cryptos.size() - byTiming.size();
+
+        List<Crypto> inserts = new ArrayList<>();
+        List<Crypto> updates = new ArrayList<>();
+        for (Crypto crypto : byTiming.values()) {
+            Optional<Crypto> existing = crypto.timing() == null || crypto.name() == null
+                    ? Optional.empty()
+                    : tickStore.find(crypto.name(), crypto.timing());
+            if (existing.isEmpty()) {
+                inserts.add(crypto);
+            } else if (Objects.equals(existing.get().price(), crypto.price())) {
+                skipped++;
+            } else {
+                Crypto stored = existing.get();
+                updates.add(new Crypto(stored.id(), stored.timing(), stored.name(), crypto.price(), stored.recommendation()));
+            }
+        }
+        return new Upsert(inserts, updates, skipped);
+    }
+
+    private void apply(Upsert upsert) {
+        List<Crypto> writes = upsert.writes();
+        if (!writes.isEmpty()) {
+            SqlParameterSource[] batch = SqlParameterSourceUtils.createBatch(writes.toArray());
+            namedParameterJdbcTemplate.batchUpdate(MERGE_SQL, batch);
+        }
+        tickStore.addAll(upsert.inserts());
+        if (!upsert.updates().isEmpty()) {
+            tickStore.updatePrices(upsert.updates().get(0).name(), upsert.updates());
+        }
+    }
+
+    private record Upsert(List<Crypto> inserts, List<Crypto> updates, long skipped) {
+
+        private List<Crypto> writes() {
+            List<Crypto> writes = new ArrayList<>(inserts.size() + updates.size());
+            writes.addAll(inserts);
+            writes.addAll(updates);
+            return writes;
+        }
+
+        private IngestResult result() {
+            return new IngestResult(inserts.size(), updates.size(), skipped);
+        }
+    }
+
+    private static final class IngestMeters {
+        private final DistributionSummary batchSize;
+        private final Counter inserted;
+        private final Counter updated;
+        private final Counter skipped;
+
+        private IngestMeters(MeterRegistry meterRegistry, String source) {
+            this.batchSize = DistributionSummary.builder("ingest.batch.size")
+                    .tag("source", source)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.inserted = rows(meterRegistry, source, "inserted");
+            this.updated = rows(meterRegistry, source, "updated");
+            this.skipped = rows(meterRegistry, source, "skipped");
+        }
+
+        private static Counter rows(MeterRegistry meterRegistry, String source, String result) {
+            return Counter.builder("ingest.rows").tag("source", source).tag("result", result).register(meterRegistry);
+        }
+
+        private IngestResult record(int rows, IngestResult result) {
+            batchSize.record(rows);
+            inserted.increment(result.inserted());
+            updated.increment(result.updated());
+            skipped.increment(result.skipped());
+            return result;
+        }
     }
 }
@@ -0,0 +1,17 @@
+package com.xmcy.crypto.model;
+
+/**
+ * One sub-query of a batch. Only the parameters its type needs are read: month and the optional year and zone
+ * for the *_BY_MONTH types, lastNoOfDays for the *_BY_DAYS types and from/to for RANGE.
+ */
+public record BatchQuery(
+    BatchQueryType type,
+    String name,
+    Integer month,
+    Integer year,
+    String zone,
+    Integer lastNoOfDays,
+    Long from,
+    Long to
+) {
+}
@@ -0,0 +1,17 @@
+package com.xmcy.crypto.model;
+
+public enum BatchQueryType {
+    MIN,
+    MAX,
+    OLDEST,
+    NEWEST,
+    NORMALIZED_VALUE,
+    MIN_BY_MONTH,
+    MAX_BY_MONTH,
+    OLDEST_BY_MONTH,
+    NEWEST_BY_MONTH,
+    MIN_BY_DAYS,
+    MAX_BY_DAYS,
+    HIGHEST_NORMALIZATION_BY_DAYS,
+    RANGE
+}
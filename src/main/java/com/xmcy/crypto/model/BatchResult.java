@@ -0,0 +1,8 @@
+package com.xmcy.crypto.model;
+
+public record BatchResult(
+    BatchQuery query,
+    Object result,
+    String error
+) {
+}
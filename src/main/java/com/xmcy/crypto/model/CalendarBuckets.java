@@ -0,0 +1,75 @@
+package com.xmcy.crypto.model;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * Month boundaries in epoch milliseconds, computed once per time zone for the years {@value #FIRST_YEAR} to
+ * {@value #LAST_YEAR} and looked up afterwards: by index for a given month, by binary search for the month a
+ * timing falls in. Months outside those years are computed when asked for. Only the {@value #MAX_CACHED_ZONES}
+ * most used zones are kept, the zone comes from the request.
+ */
+public final class CalendarBuckets {
+
+    static final int FIRST_YEAR = 1970;
+    static final int LAST_YEAR = 2100;
+    static final int MAX_CACHED_ZONES = 128;
+
+    // Per normalized zone the start of every month of the covered years, followed by the start of the year after
+    private static final Cache<ZoneId, long[]> MONTH_STARTS = Caffeine.newBuilder().maximumSize(MAX_CACHED_ZONES).build();
+
+    private CalendarBuckets() {
+    }
+
+    public static long monthStart(int year, int month, ZoneId zone) {
+        if (year < FIRST_YEAR || year > LAST_YEAR) {
+            return computeMonthStart(year, month, zone);
+        }
+        return monthStarts(zone)[(year - FIRST_YEAR) * 12 + month - 1];
+    }
+
+    /**
+     * Start of the following month, the exclusive end of the month.
+     */
+    public static long monthEnd(int year, int month, ZoneId zone) {
+        return month == 12 ? monthStart(year + 1, 1, zone) : monthStart(year, month + 1, zone);
+    }
+
+    /**
+     * Start of the month the timing falls in.
+     */
+    public static long monthStartOf(long timing, ZoneId zone) {
+        long[] starts = monthStarts(zone);
+        int index = Arrays.binarySearch(starts, timing);
+        if (index >= 0) {
+            return starts[index];
+        }
+        int insertion = -index - 1;
+        if (insertion == 0 || insertion == starts.length) {
+            LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(timing), zone);
+            return computeMonthStart(date.getYear(), date.getMonthValue(), zone);
+        }
+        return starts[insertion - 1];
+    }
+
+    private static long[] monthStarts(ZoneId zone) {
+        return MONTH_STARTS.get(zone.normalized(), CalendarBuckets::computeMonthStarts);
+    }
+
+    private static long[] computeMonthStarts(ZoneId zone) {
+        long[] starts = new long[(LAST_YEAR - FIRST_YEAR + 1) * 12 + 1];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = computeMonthStart(FIRST_YEAR + i / 12, i % 12 + 1, zone);
+        }
+        return starts;
+    }
+
+    private static long computeMonthStart(int year, int month, ZoneId zone) {
+        return LocalDate.of(year, month, 1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
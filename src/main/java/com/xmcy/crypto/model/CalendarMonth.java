@@ -0,0 +1,59 @@
+package com.xmcy.crypto.model;
+
+import com.xmcy.crypto.exception.MonthNotSupportedException;
+import com.xmcy.crypto.exception.ZoneNotSupportedException;
+
+import java.time.DateTimeException;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A month of a given year as seen from a time zone, the period the month queries cover.
+ */
+public record CalendarMonth(int year, Months month, ZoneId zone) {
+
+    public static final int MIN_YEAR = 1;
+    public static final int MAX_YEAR = 9999;
+
+    /**
+     * Validates the request parameters of a month query.
+     *
+     * @param year the year, the current one in the zone if null
+     * @param zone the zone id, the server's zone if null; fixed offsets must be whole minutes
+     */
+    public static CalendarMonth of(Integer year, int month, String zone) {
+        Months months = Months.fromValue(month);
+        ZoneId zoneId = zone == null ? ZoneId.systemDefault().normalized() : parseZone(zone);
+        int resolvedYear = year == null ? Year.now(zoneId).getValue() : year;
+        if (resolvedYear < MIN_YEAR || resolvedYear > MAX_YEAR) {
+            throw new MonthNotSupportedException("Invalid year value: " + resolvedYear);
+        }
+        return new CalendarMonth(resolvedYear, months, zoneId);
+    }
+
+    public long start() {
+        return CalendarBuckets.monthStart(year, month.getMonth(), zone);
+    }
+
+    /**
+     * Start of the following month, exclusive.
+     */
+    public long end() {
+        return CalendarBuckets.monthEnd(year, month.getMonth(), zone);
+    }
+
+    private static ZoneId parseZone(String zone) {
+        ZoneId zoneId;
+        try {
+            // Fixed offset zones such as UTC+01:00 become the offset itself, equal queries get equal months
+            zoneId = ZoneId.of(zone).normalized();
+        } catch (DateTimeException e) {
+            throw new ZoneNotSupportedException("Invalid time zone: " + zone);
+        }
+        if (zoneId instanceof ZoneOffset offset && offset.getTotalSeconds() % 60 != 0) {
+            throw new ZoneNotSupportedException("Invalid time zone, offsets must be whole minutes: " + zone);
+        }
+        return zoneId;
+    }
+}
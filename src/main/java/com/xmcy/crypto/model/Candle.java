@@ -0,0 +1,11 @@
+package com.xmcy.crypto.model;
+
+public record Candle(
+    long time,
+    double open,
+    double high,
+    double low,
+    double close,
+    long count
+) {
+}
@@ -0,0 +1,42 @@
+package com.xmcy.crypto.model;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+import com.xmcy.crypto.exception.ResolutionNotSupportedException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum CandleResolution {
+    HOURLY(ChronoUnit.HOURS),
+    DAILY(ChronoUnit.DAYS),
+    MONTHLY(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    public static CandleResolution fromString(String value) {
+        return Arrays.stream(CandleResolution.values())
+                .filter(resolution -> resolution.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new ResolutionNotSupportedException("Invalid candle resolution: " + value));
+    }
+
+    public long bucketStart(long timing, ZoneId zone) {
+        if (this == MONTHLY) {
+            return CalendarBuckets.monthStartOf(timing, zone);
+        }
+        ZonedDateTime time = Instant.ofEpochMilli(timing).atZone(zone);
+        ZonedDateTime start = this == HOURLY ? time.truncatedTo(ChronoUnit.HOURS) : time.toLocalDate().atStartOfDay(zone);
+        return start.toInstant().toEpochMilli();
+    }
+
+    public long nextBucketStart(long bucketStart, ZoneId zone) {
+        return bucketStart(Instant.ofEpochMilli(bucketStart).atZone(zone).plus(1, unit).toInstant().toEpochMilli(), zone);
+    }
+}
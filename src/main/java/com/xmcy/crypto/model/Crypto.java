@@ -6,7 +6,9 @@ import javax.validation.constraints.NotNull;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "CRYPTOS")
+@Table(name = "CRYPTOS",
+        indexes = @Index(name = "IDX_CRYPTOS_TIMING_ID", columnList = "timing, id"),
+        uniqueConstraints = @UniqueConstraint(name = "UK_CRYPTOS_TIMING_NAME", columnNames = {"timing", "name"}))
 public record Crypto(
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,9 @@
+package com.xmcy.crypto.model;
+
+import java.util.List;
+
+public record CryptoPage(
+    List<Crypto> items,
+    String nextCursor
+) {
+}
@@ -0,0 +1,11 @@
+package com.xmcy.crypto.model;
+
+/**
+ * A cryptocurrency the service accepts ticks for. The id is small and dense, assigned in registration order.
+ */
+public record CryptoSymbol(
+    int id,
+    String name,
+    String symbol
+) {
+}
@@ -0,0 +1,13 @@
+package com.xmcy.crypto.model;
+
+public record IngestResult(
+    long inserted,
+    long updated,
+    long skipped
+) {
+    public static final IngestResult EMPTY = new IngestResult(0, 0, 0);
+
+    public IngestResult plus(IngestResult other) {
+        return new IngestResult(inserted + other.inserted, updated + other.updated, skipped + other.skipped);
+    }
+}
@@ -1,7 +1,5 @@
 package com.xmcy.crypto.model;
 
-import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.Arrays;
 
 import com.xmcy.crypto.exception.MonthNotSupportedException;
@@ -33,20 +31,4 @@ public enum Months {
                 .findFirst()
                 .orElseThrow(() -> new MonthNotSupportedException("Invalid month value: " + month));
     }
-
-    public long getStartingOfMonthInMillis() {
-        var firstDay = LocalDate.of(LocalDate.now().getYear(), this.getMonth(), 1);
-        var zonedDateTime = firstDay.atStartOfDay(ZoneId.systemDefault());
-        return zonedDateTime.toInstant().toEpochMilli();
-        
-    }
-
-    public long getEndOfMonthInMillis() {
-        var lastDay = LocalDate.of(LocalDate.now().getYear(), this.getMonth(), 1)
-                                .withDayOfMonth(LocalDate.of(LocalDate.now().getYear(), this.getMonth(), 1).lengthOfMonth());
-        var zonedDateTime = lastDay.atTime(23, 59, 59, 999999999)
-                            .atZone(ZoneId.systemDefault());
-        return zonedDateTime.toInstant().toEpochMilli();
-    }
-
 }
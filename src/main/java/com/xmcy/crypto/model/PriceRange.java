@@ -0,0 +1,13 @@
+package com.xmcy.crypto.model;
+
+public record PriceRange(
+    String name,
+    long from,
+    long to,
+    Crypto first,
+    Crypto last,
+    Crypto min,
+    Crypto max,
+    Double normalizedRange
+) {
+}
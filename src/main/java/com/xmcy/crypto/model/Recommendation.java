@@ -0,0 +1,25 @@
+package com.xmcy.crypto.model;
+
+import java.util.Arrays;
+
+import com.xmcy.crypto.exception.RecommendationNotSupportedException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum Recommendation {
+    BUY("Buy"),
+    HOLD("Hold"),
+    SELL("Sell");
+
+    private final String label;
+
+    public static Recommendation fromString(String value) {
+        return Arrays.stream(Recommendation.values())
+                .filter(recommendation -> recommendation.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new RecommendationNotSupportedException("Invalid recommendation: " + value));
+    }
+}
@@ -0,0 +1,17 @@
+package com.xmcy.crypto.model;
+
+/**
+ * The signal computed for a symbol as of its latest tick.
+ *
+ * @param normalizedRange (max - min) / min over the range window
+ * @param momentum        relative price change over the momentum window
+ * @param score           momentum as a share of the normalized range, which decides the recommendation
+ */
+public record RecommendationSignal(
+        String name,
+        Recommendation recommendation,
+        double normalizedRange,
+        double momentum,
+        double score,
+        Crypto latest) {
+}
@@ -0,0 +1,21 @@
+package com.xmcy.crypto.model;
+
+import java.time.Instant;
+import java.util.List;
+
+public record UploadJob(
+    String id,
+    UploadJobStatus status,
+    long rowsProcessed,
+    long rowsRejected,
+    long rowsInserted,
+    long rowsUpdated,
+    long rowsSkipped,
+    List<String> rejectedLines,
+    double rowsPerSecond,
+    Instant submittedAt,
+    Instant startedAt,
+    Instant finishedAt,
+    String error
+) {
+}
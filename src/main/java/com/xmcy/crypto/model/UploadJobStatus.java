@@ -0,0 +1,5 @@
+package com.xmcy.crypto.model;
+
+public enum UploadJobStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
@@ -1,8 +1,10 @@
 package com.xmcy.crypto.repository;
 
 import com.xmcy.crypto.model.Crypto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,20 +12,11 @@ import java.util.Optional;
 
 @Repository
 public interface CryptoRepository extends JpaRepository<Crypto, Long> {
-    Optional<Crypto> findTopByNameOrderByPriceAsc(String name);
-    Optional<Crypto> findTopByNameOrderByPriceDesc(String name);
-
-    @Query("SELECT c FROM Crypto c WHERE c.price = (SELECT MAX(c2.price) FROM Crypto c2 WHERE c2.name = c.name)")
-    List<Crypto> findAllMaxValuesGroupedByName();
-    
-    @Query("SELECT c FROM Crypto c WHERE c.price = (SELECT MIN(c2.price) FROM Crypto c2 WHERE c2.name = c.name)")
-    List<Crypto> findAllMinValuesGroupedByName();
-
     Optional<Crypto> findByTimingAndName(Long timestamp, String name);
     Optional<Crypto> findTopByNameOrderByTimingAsc(String name);
-    Optional<Crypto> findTopByOrderByTimingAsc();
-    Optional<Crypto> findTopByOrderByTimingDesc();
     Optional<Crypto> findTopByNameOrderByTimingDesc(String name);
-    List<Crypto> findByName(String name);
-    List<Crypto> findAllByTimingBetween(long startingOfDateMillis, long endOfDateMillis);
+    List<Crypto> findAllByOrderByTimingAscIdAsc(Pageable pageable);
+
+    @Query("SELECT c FROM Crypto c WHERE c.timing > :timing OR (c.timing = :timing AND c.id > :id) ORDER BY c.timing, c.id")
+    List<Crypto> findAllAfter(@Param("timing") Long timing, @Param("id") Long id, Pageable pageable);
 }
\ No newline at end of file
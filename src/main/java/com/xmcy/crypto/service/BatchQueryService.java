@@ -0,0 +1,130 @@
+package com.xmcy.crypto.service;
+
+import com.xmcy.crypto.exception.CryptoNotFoundException;
+import com.xmcy.crypto.exception.InvalidCryptoDataException;
+import com.xmcy.crypto.model.BatchQuery;
+import com.xmcy.crypto.model.BatchRequest;
+import com.xmcy.crypto.model.BatchResponse;
+import com.xmcy.crypto.model.BatchResult;
+import com.xmcy.crypto.model.CalendarMonth;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.store.SymbolRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Answers many dashboard queries in one call. Sub-queries that are the same once the name is resolved run once,
+ * and the distinct ones run in parallel on a bounded executor next to the id lookup.
+ * A failing sub-query reports its error in its own result instead of failing the batch.
+ */
+@Service
+public class BatchQueryService {
+
+    private final CryptoService cryptoService;
+    private final SymbolRegistry symbolRegistry;
+    private final Executor executor;
+    private final int maxQueries;
+
+    public BatchQueryService(CryptoService cryptoService, SymbolRegistry symbolRegistry,
+                             @Qualifier("batchQueryExecutor") Executor executor,
+                             @Value("${batch.query.max.size}") int maxQueries) {
+        this.cryptoService = cryptoService;
+        this.symbolRegistry = symbolRegistry;
+        this.executor = executor;
+        this.maxQueries = maxQueries;
+    }
+
+    public BatchResponse execute(BatchRequest request) {
+        List<BatchQuery> queries = request.queries() == null ? List.of() : request.queries();
+        List<Long> ids = request.ids() == null ? List.of() : request.ids();
+        if (queries.size() + ids.size() > maxQueries) {
+            throw new InvalidCryptoDataException("A batch can hold at most " + maxQueries + " queries and ids");
+        }
+
+        CompletableFuture<List<Crypto>> cryptos = ids.isEmpty()
+                ? CompletableFuture.completedFuture(List.of())
+                : CompletableFuture.supplyAsync(() -> cryptoService.getCryptosByIds(ids), executor);
+
+        Map<BatchQuery, CompletableFuture<Object>> distinct = new HashMap<>();
+        List<CompletableFuture<Object>> pending = new ArrayList<>(queries.size());
+        for (BatchQuery query : queries) {
+            CompletableFuture<Object> future;
+            try {
+                BatchQuery resolved = resolve(query);
+                future = distinct.computeIfAbsent(resolved,
+                        key -> CompletableFuture.supplyAsync(() -> run(key), executor));
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            pending.add(future);
+        }
+
+        List<BatchResult> results = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            results.add(toResult(queries.get(i), pending.get(i)));
+        }
+        return new BatchResponse(results, cryptos.join());
+    }
+
+    private BatchQuery resolve(BatchQuery query) {
+        if (query.type() == null) {
+            throw new InvalidCryptoDataException("Query type is required");
+        }
+        String name = symbolRegistry.name(query.name());
+        return new BatchQuery(query.type(), name, query.month(), query.year(), query.zone(), query.lastNoOfDays(),
+                query.from(), query.to());
+    }
+
+    private Object run(BatchQuery query) {
+        String name = query.name();
+        Optional<?> result = switch (query.type()) {
+            case MIN -> cryptoService.getCryptoWithMinValueByName(name);
+            case MAX -> cryptoService.getCryptoWithMaxValueByName(name);
+            case OLDEST -> cryptoService.getOldestCryptoByName(name);
+            case NEWEST -> cryptoService.getNewestCryptoByName(name);
+            case NORMALIZED_VALUE -> Optional.ofNullable(cryptoService.getNormalizedValuesByName(name).get(name));
+            case MIN_BY_MONTH -> cryptoService.getCryptoWithMinValueByNameAndMonth(name, month(query));
+            case MAX_BY_MONTH -> cryptoService.getCryptoWithMaxValueByNameAndMonth(name, month(query));
+            case OLDEST_BY_MONTH -> cryptoService.getOldestCryptoByNameAndMonth(name, month(query));
+            case NEWEST_BY_MONTH -> cryptoService.getNewestCryptoByNameAndMonth(name, month(query));
+            case MIN_BY_DAYS -> cryptoService.getCryptoWithMinValueByNameAndDays(name, lastNoOfDays(query));
+            case MAX_BY_DAYS -> cryptoService.getCryptoWithMaxValueByNameAndDays(name, lastNoOfDays(query));
+            case HIGHEST_NORMALIZATION_BY_DAYS -> cryptoService.getCryptoWithHighestNormalizationByNameAndDays(name, lastNoOfDays(query));
+            case RANGE -> cryptoService.getPriceRange(name, required(query.from(), "from"), required(query.to(), "to"));
+        };
+        return result.orElseThrow(() -> new CryptoNotFoundException("No data found for " + query.type() + " of " + name));
+    }
+
+    private static BatchResult toResult(BatchQuery query, CompletableFuture<Object> future) {
+        try {
+            return new BatchResult(query, future.join(), null);
+        } catch (CompletionException e) {
+            return new BatchResult(query, null, e.getCause().getMessage());
+        }
+    }
+
+    private static CalendarMonth month(BatchQuery query) {
+        return CalendarMonth.of(query.year(), required(query.month(), "month"), query.zone());
+    }
+
+    private static int lastNoOfDays(BatchQuery query) {
+        return required(query.lastNoOfDays(), "lastNoOfDays");
+    }
+
+    private static <T> T required(T value, String parameter) {
+        if (value == null) {
+            throw new InvalidCryptoDataException(parameter + " is required");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,86 @@
+package com.xmcy.crypto.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.xmcy.crypto.config.CacheConfig;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.store.TickListener;
+import com.xmcy.crypto.store.TickStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Evicts the cached {@link CryptoService} reads a tick write can change, and only those:
+ * the entries of the written symbol and the dates its ticks fall on.
+ */
+@Component
+@RequiredArgsConstructor
+public class CryptoCacheInvalidator implements TickListener {
+
+    private final CacheManager cacheManager;
+    private final TickStore tickStore;
+
+    @PostConstruct
+    void register() {
+        tickStore.addListener(this);
+    }
+
+    @Override
+    public void ticksAdded(String name, List<Crypto> ticks) {
+        evictSymbol(name);
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate previous = null;
+        for (Crypto tick : ticks) {
+            // Ticks come mostly ordered, so consecutive ones usually share a date
+            LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(tick.timing()), zone);
+            if (!date.equals(previous)) {
+                evict(CacheConfig.HIGHEST_NORMALIZATION_BY_DATE, date.format(CryptoService.DATE_FORMAT));
+                previous = date;
+            }
+        }
+    }
+
+    @Override
+    public void tickRemoved(Crypto tick) {
+        evictSymbol(tick.name());
+        LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(tick.timing()), ZoneId.systemDefault());
+        evict(CacheConfig.HIGHEST_NORMALIZATION_BY_DATE, date.format(CryptoService.DATE_FORMAT));
+    }
+
+    @Override
+    public void seriesRemoved(String name) {
+        evictSymbol(name);
+        Cache<Object, Object> byDate = nativeCache(CacheConfig.HIGHEST_NORMALIZATION_BY_DATE);
+        if (byDate != null) {
+            byDate.invalidateAll();
+        }
+    }
+
+    private void evictSymbol(String name) {
+        // The all-symbols map holds an entry for every symbol, so any write invalidates it
+        evict(CacheConfig.NORMALIZED_VALUES, CryptoService.ALL_SYMBOLS_KEY);
+        evict(CacheConfig.NORMALIZED_VALUES_BY_NAME, name);
+        Cache<Object, Object> monthly = nativeCache(CacheConfig.MONTHLY_TICKS);
+        if (monthly != null) {
+            monthly.asMap().keySet().removeIf(key -> key instanceof List<?> parts && name.equals(parts.get(0)));
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache<Object, Object> cache = nativeCache(cacheName);
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    private Cache<Object, Object> nativeCache(String cacheName) {
+        return cacheManager.getCache(cacheName) instanceof CaffeineCache caffeineCache ? caffeineCache.getNativeCache() : null;
+    }
+}
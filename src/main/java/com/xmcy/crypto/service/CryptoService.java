@@ -1,34 +1,86 @@
 package com.xmcy.crypto.service;
 
+import com.xmcy.crypto.config.CacheConfig;
 import com.xmcy.crypto.exception.CryptoNotFoundException;
 import com.xmcy.crypto.exception.InvalidCryptoDataException;
+import com.xmcy.crypto.helper.DataInserter;
+import com.xmcy.crypto.model.CalendarMonth;
+import com.xmcy.crypto.model.Candle;
+import com.xmcy.crypto.model.CandleResolution;
 import com.xmcy.crypto.model.Crypto;
-import com.xmcy.crypto.model.Months;
+import com.xmcy.crypto.model.CryptoPage;
+import com.xmcy.crypto.model.PriceRange;
+import com.xmcy.crypto.model.Recommendation;
+import com.xmcy.crypto.model.RecommendationSignal;
 import com.xmcy.crypto.model.SortDirection;
 import com.xmcy.crypto.repository.CryptoRepository;
+import com.xmcy.crypto.store.CandleSeries;
+import com.xmcy.crypto.store.SymbolAggregate;
+import com.xmcy.crypto.store.SymbolSeries;
+import com.xmcy.crypto.store.TickStore;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CryptoService {
 
+    public static final int DEFAULT_PAGE_LIMIT = 100;
+    public static final int MAX_PAGE_LIMIT = 1000;
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    public static final String ALL_SYMBOLS_KEY = "all";
+
     private final CryptoRepository cryptoRepository;
+    private final TickStore tickStore;
+    private final DataInserter dataInserter;
+    private final RecommendationEngine recommendationEngine;
+
+    public CryptoPage getCryptoPage(int limit, String cursor) {
+        int pageLimit = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        // One extra row tells whether another page follows
+        var pageable = PageRequest.of(0, pageLimit + 1);
+        List<Crypto> cryptos;
+        if (cursor == null || cursor.isBlank()) {
+            cryptos = cryptoRepository.findAllByOrderByTimingAscIdAsc(pageable);
+        } else {
+            long[] position = decodeCursor(cursor);
+            cryptos = cryptoRepository.findAllAfter(position[0], position[1], pageable);
+        }
+        if (cryptos.size() <= pageLimit) {
+            return new CryptoPage(cryptos, null);
+        }
+        List<Crypto> items = cryptos.subList(0, pageLimit);
+        Crypto last = items.get(pageLimit - 1);
+        return new CryptoPage(items, encodeCursor(last.timing(), last.id()));
+    }
 
-    public List<Crypto> getAllCryptos() {
-        return cryptoRepository.findAll();
+    private static String encodeCursor(long timing, long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((timing + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidCryptoDataException("Invalid cursor: " + cursor);
+        }
     }
 
     public Optional<Crypto> getCryptoById(Long id) {
@@ -36,11 +88,13 @@ public class CryptoService {
                 .orElseThrow(() -> new CryptoNotFoundException("No data found for Id:" + id)));
     }
 
+    public List<Crypto> getCryptosByIds(List<Long> ids) {
+        return cryptoRepository.findAllById(ids);
+    }
+
     public Crypto addCrypto(Crypto crypto) {
-        if (crypto.name() == null || crypto.price() == null) {
-            throw new InvalidCryptoDataException("Invalid crypto data");
-        }
-        return cryptoRepository.save(crypto);
+        validate(crypto);
+        return dataInserter.addData(crypto);
     }
 
     public Crypto updateCrypto(Long id, Crypto cryptoDetails) {
@@ -52,61 +106,80 @@ public class CryptoService {
                 cryptoDetails.name(),
                 cryptoDetails.price(),
                 cryptoDetails.recommendation());
-        return cryptoRepository.save(updatedCrypto);
+        validate(updatedCrypto);
+        return dataInserter.updateData(existingCrypto, updatedCrypto);
     }
 
-    public void deleteCrypto(Long id) {
-        if (!cryptoRepository.existsById(id)) {
-            throw new CryptoNotFoundException("Crypto not found with id: " + id);
+    private static void validate(Crypto crypto) {
+        if (crypto.timing() == null || crypto.name() == null || crypto.price() == null) {
+            throw new InvalidCryptoDataException("Invalid crypto data");
         }
-        cryptoRepository.deleteById(id);
     }
 
-    public List<Crypto> getRecommendations() {
-        List<Crypto> allCryptos = cryptoRepository.findAll();
-        return allCryptos.stream()
-                .filter(crypto -> "Buy".equalsIgnoreCase(crypto.recommendation()))
-                .collect(Collectors.toList());
+    public void deleteCrypto(Long id) {
+        Crypto existingCrypto = cryptoRepository.findById(id)
+                .orElseThrow(() -> new CryptoNotFoundException("Crypto not found with id: " + id));
+        dataInserter.deleteData(existingCrypto);
+    }
+
+    /**
+     * The latest tick of every symbol with the recommendation, carrying it in its recommendation field.
+     */
+    public List<Crypto> getRecommendations(Recommendation recommendation) {
+        return recommendationEngine.signals(recommendation).stream()
+                .map(signal -> {
+                    Crypto latest = signal.latest();
+                    return new Crypto(latest.id(), latest.timing(), latest.name(), latest.price(), recommendation.getLabel());
+                })
+                .toList();
+    }
+
+    public List<RecommendationSignal> getRecommendationSignals() {
+        return recommendationEngine.signals();
     }
 
     public Optional<Crypto> getCryptoWithMinValueByName(String name) {
-        return cryptoRepository.findTopByNameOrderByPriceAsc(name);
+        return tickStore.aggregate(name).map(SymbolAggregate::min);
     }
 
     public Optional<Crypto> getCryptoWithMaxValueByName(String name) {
-        return cryptoRepository.findTopByNameOrderByPriceDesc(name);
+        return tickStore.aggregate(name).map(SymbolAggregate::max);
     }
 
     public List<Crypto> getAllMaxValuesGroupedByName() {
-        return cryptoRepository.findAllMaxValuesGroupedByName();
+        return tickStore.aggregates().stream().map(SymbolAggregate::max).toList();
     }
 
     public List<Crypto> getAllMinValuesGroupedByName() {
-        return cryptoRepository.findAllMinValuesGroupedByName();
+        return tickStore.aggregates().stream().map(SymbolAggregate::min).toList();
     }
 
     public Optional<Crypto> getOldestCryptoByName(String name) {
-        return cryptoRepository.findTopByNameOrderByTimingAsc(name);
+        return tickStore.aggregate(name).map(SymbolAggregate::first);
     }
 
     public Optional<Crypto> getOldestCrypto() {
-        return cryptoRepository.findTopByOrderByTimingAsc();
+        return tickStore.aggregates().stream()
+                .map(SymbolAggregate::first)
+                .min(Comparator.comparing(Crypto::timing));
     }
 
     public Optional<Crypto> getNewestCrypto() {
-        return cryptoRepository.findTopByOrderByTimingDesc();
+        return tickStore.aggregates().stream()
+                .map(SymbolAggregate::last)
+                .max(Comparator.comparing(Crypto::timing));
     }
 
     public Optional<Crypto> getNewestCryptoByName(String name) {
-        return cryptoRepository.findTopByNameOrderByTimingDesc(name);
+        return tickStore.aggregate(name).map(SymbolAggregate::last);
     }
 
     public List<Crypto> getAllOldestValuesGroupedByName() {
-        return cryptoRepository.findAllMinValuesGroupedByName();
+        return tickStore.aggregates().stream().map(SymbolAggregate::first).toList();
     }
 
     public List<Crypto> getAllNewestValuesGroupedByName() {
-        return cryptoRepository.findAllMaxValuesGroupedByName();
+        return tickStore.aggregates().stream().map(SymbolAggregate::last).toList();
     }
 
     public List<Crypto> getCryptosSortedByTiming(String name, SortDirection sortDirection) {
@@ -121,121 +194,112 @@ public class CryptoService {
         }
     }
 
+    @Cacheable(cacheNames = CacheConfig.NORMALIZED_VALUES, key = "'" + ALL_SYMBOLS_KEY + "'")
     public Map<String, Double> getNormalizedValues() {
-        var cryptos = cryptoRepository.findAll();
-        return calculateNormalizedValues(cryptos);
+        Map<String, Double> normalizedValues = new HashMap<>();
+        for (SymbolAggregate aggregate : tickStore.aggregates()) {
+            putNormalizedValue(normalizedValues, aggregate);
+        }
+        return normalizedValues;
     }
 
+    @Cacheable(cacheNames = CacheConfig.NORMALIZED_VALUES_BY_NAME, key = "#name")
     public Map<String, Double> getNormalizedValuesByName(String name) {
-        var cryptos = cryptoRepository.findByName(name);
-        return calculateNormalizedValues(cryptos);
+        Map<String, Double> normalizedValues = new HashMap<>();
+        tickStore.aggregate(name).ifPresent(aggregate -> putNormalizedValue(normalizedValues, aggregate));
+        return normalizedValues;
     }
 
-    private Map<String, Double> calculateNormalizedValues(List<Crypto> cryptos) {
-        Map<String, Double> normalizedValues = new HashMap<>();
-        var groupedByName = cryptos.stream()
-                .collect(Collectors.groupingBy(Crypto::name));
-
-        for (Map.Entry<String, List<Crypto>> entry : groupedByName.entrySet()) {
-            String name = entry.getKey();
-            List<Crypto> cryptoList = entry.getValue();
-            var min = cryptoList.stream().mapToDouble(Crypto::price).min();
-            var max = cryptoList.stream().mapToDouble(Crypto::price).max();
-
-            if (min.isPresent() && max.isPresent() && min.getAsDouble() != 0) {
-                var normalizedValue = (max.getAsDouble() - min.getAsDouble()) / min.getAsDouble();
-                normalizedValues.put(name, normalizedValue);
-            }
+    private static void putNormalizedValue(Map<String, Double> normalizedValues, SymbolAggregate aggregate) {
+        double normalizedRange = aggregate.normalizedRange();
+        if (!Double.isNaN(normalizedRange)) {
+            normalizedValues.put(aggregate.min().name(), normalizedRange);
         }
+    }
 
-        return normalizedValues;
+    @Cacheable(cacheNames = CacheConfig.MONTHLY_TICKS, key = "{#name, #month, 'OPEN'}")
+    public Optional<Crypto> getOldestCryptoByNameAndMonth(String name, CalendarMonth month) {
+        return monthlyCandleTick(name, month, CandleSeries.Point.OPEN);
     }
 
-    public Optional<Crypto> getOldestCryptoByNameAndMonth(String name, Months month) {
-        return cryptoRepository.findByName(name)
-                .stream()
-                .filter(isInMonthRange(month))
-                .sorted((a, b) -> a.timing().compareTo(b.timing()))
-                .findFirst();
+    @Cacheable(cacheNames = CacheConfig.MONTHLY_TICKS, key = "{#name, #month, 'CLOSE'}")
+    public Optional<Crypto> getNewestCryptoByNameAndMonth(String name, CalendarMonth month) {
+        return monthlyCandleTick(name, month, CandleSeries.Point.CLOSE);
     }
 
-    private Predicate<? super Crypto> isInMonthRange(Months month) {
-        return crypto -> crypto.timing() >= month.getStartingOfMonthInMillis()
-                && crypto.timing() <= month.getEndOfMonthInMillis();
+    @Cacheable(cacheNames = CacheConfig.MONTHLY_TICKS, key = "{#name, #month, 'HIGH'}")
+    public Optional<Crypto> getCryptoWithMaxValueByNameAndMonth(String name, CalendarMonth month) {
+        return monthlyCandleTick(name, month, CandleSeries.Point.HIGH);
     }
 
-    public Optional<Crypto> getNewestCryptoByNameAndMonth(String name, Months month) {
-        return cryptoRepository.findByName(name)
-                .stream()
-                .filter(isInMonthRange(month))
-                .sorted((a, b) -> b.timing().compareTo(a.timing()))
-                .findFirst();
+    @Cacheable(cacheNames = CacheConfig.MONTHLY_TICKS, key = "{#name, #month, 'LOW'}")
+    public Optional<Crypto> getCryptoWithMinValueByNameAndMonth(String name, CalendarMonth month) {
+        return monthlyCandleTick(name, month, CandleSeries.Point.LOW);
     }
 
-    public Optional<Crypto> getCryptoWithMaxValueByNameAndMonth(String name, Months month) {
-        return cryptoRepository.findByName(name)
-                .stream()
-                .filter(isInMonthRange(month))
-                .sorted((a, b) -> a.price().compareTo(b.price()))
-                .findFirst();
+    private Optional<Crypto> monthlyCandleTick(String name, CalendarMonth month, CandleSeries.Point point) {
+        return tickStore.series(name).flatMap(series -> {
+            if (series.getZone().equals(month.zone())) {
+                return series.candleTick(CandleResolution.MONTHLY, month.start(), point);
+            }
+            // The monthly candles are cut in the series' zone, other zones take the month's range
+            return Optional.ofNullable(series.aggregate(month.start(), month.end() - 1))
+                    .map(aggregate -> aggregate.point(point));
+        });
     }
 
-    public Optional<Crypto> getCryptoWithMinValueByNameAndMonth(String name, Months month) {
-        return cryptoRepository.findByName(name)
-                .stream()
-                .filter(isInMonthRange(month))
-                .sorted((a, b) -> b.price().compareTo(a.price()))
-                .findFirst();
+    public List<Candle> getCandles(String name, CandleResolution resolution, long from, long to) {
+        return tickStore.series(name)
+                .map(series -> series.candles(resolution, from, to))
+                .orElseGet(List::of);
     }
 
+    public Optional<PriceRange> getPriceRange(String name, long from, long to) {
+        if (from > to) {
+            throw new InvalidCryptoDataException("Invalid range: from " + from + " is after to " + to);
+        }
+        return tickStore.series(name)
+                .map(series -> series.aggregate(from, to))
+                .map(aggregate -> new PriceRange(name, from, to, aggregate.first(), aggregate.last(),
+                        aggregate.min(), aggregate.max(),
+                        Double.isNaN(aggregate.normalizedRange()) ? null : aggregate.normalizedRange()));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.HIGHEST_NORMALIZATION_BY_DATE, key = "#date")
     public Optional<Crypto> getCryptoWithHighestNormalization(String date) {
-        var localDate = LocalDate.parse(date, DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+        var localDate = LocalDate.parse(date, DATE_FORMAT);
         var startingOfDateMillis = localDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
         var endOfDateMillis = localDate.atTime(23, 59, 59, 999999999)
                 .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        var cryptos = cryptoRepository.findAllByTimingBetween(startingOfDateMillis, endOfDateMillis);
-        var normalizedValues = calculateNormalizedValues(cryptos);
-        var max = normalizedValues.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .orElseThrow(() -> new CryptoNotFoundException("No data found for date: " + date));
-        return cryptos.stream()
-                .filter(crypto -> crypto.name().equals(max.getKey())
-                        && crypto.price().equals(max.getValue()))
-                .findFirst();
+        SymbolAggregate highest = null;
+        for (SymbolSeries series : tickStore.allSeries()) {
+            SymbolAggregate aggregate = series.aggregate(startingOfDateMillis, endOfDateMillis);
+            if (aggregate != null && !Double.isNaN(aggregate.normalizedRange())
+                    && (highest == null || aggregate.normalizedRange() > highest.normalizedRange())) {
+                highest = aggregate;
+            }
+        }
+        if (highest == null) {
+            throw new CryptoNotFoundException("No data found for date: " + date);
+        }
+        // The tick at which the day's normalized range peaks
+        return Optional.of(highest.max());
     }
 
     public Optional<Crypto> getCryptoWithHighestNormalizationByNameAndDays(String name, int lastNoOfDays) {
-        var localDate = LocalDate.now().minusDays(lastNoOfDays);
-        var startingOfDateMillis = localDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        var endOfDateMillis = localDate.atStartOfDay(null).toInstant().toEpochMilli();
-        var cryptos = cryptoRepository.findAllByTimingBetween(startingOfDateMillis, endOfDateMillis);
-        var max = calculateNormalizedValues(cryptos)
-                .entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .orElseThrow(() -> new CryptoNotFoundException("No data found for last days: " + lastNoOfDays));
-        return cryptos.stream()
-                .filter(crypto -> crypto.name().equals(max.getKey())
-                        && crypto.price().equals(max.getValue()))
-                .findFirst();
+        // (price - min) / min over the window peaks at the window's maximum price
+        return getCryptoWithMaxValueByNameAndDays(name, lastNoOfDays);
     }
 
     public Optional<Crypto> getCryptoWithMinValueByNameAndDays(String name, int lastNoOfDays) {
-        var localDate = LocalDate.now().minusDays(lastNoOfDays);
-        var startingOfDateMillis = localDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        var endOfDateMillis = localDate.atStartOfDay(null).toInstant().toEpochMilli();
-        var cryptos = cryptoRepository.findAllByTimingBetween(startingOfDateMillis, endOfDateMillis);
-        return cryptos.stream()
-                .filter(crypto -> crypto.name().equals(name))
-                .min((a, b) -> a.price().compareTo(b.price()));
+        return rollingAggregate(name, lastNoOfDays).map(SymbolAggregate::min);
     }
 
     public Optional<Crypto> getCryptoWithMaxValueByNameAndDays(String name, int lastNoOfDays) {
-        var localDate = LocalDate.now().minusDays(lastNoOfDays);
-        var startingOfDateMillis = localDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        var endOfDateMillis = localDate.atStartOfDay(null).toInstant().toEpochMilli();
-        var cryptos = cryptoRepository.findAllByTimingBetween(startingOfDateMillis, endOfDateMillis);
-        return cryptos.stream()
-                .filter(crypto -> crypto.name().equals(name))
-                .min((a, b) -> b.price().compareTo(a.price()));
+        return rollingAggregate(name, lastNoOfDays).map(SymbolAggregate::max);
+    }
+
+    private Optional<SymbolAggregate> rollingAggregate(String name, int lastNoOfDays) {
+        return tickStore.series(name).map(series -> series.rollingAggregate(lastNoOfDays, System.currentTimeMillis()));
     }
-}
\ No newline at end of file
+}
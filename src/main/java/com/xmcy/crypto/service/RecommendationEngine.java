@@ -0,0 +1,139 @@
+package com.xmcy.crypto.service;
+
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.model.Recommendation;
+import com.xmcy.crypto.model.RecommendationSignal;
+import com.xmcy.crypto.store.SymbolAggregate;
+import com.xmcy.crypto.store.SymbolSeries;
+import com.xmcy.crypto.store.TickListener;
+import com.xmcy.crypto.store.TickStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a Buy/Hold/Sell signal per symbol, recomputed whenever the symbol's ticks change.
+ * <p>
+ * The windows end at the symbol's latest tick rather than at the current time, so historical data gets a signal
+ * too. The momentum is the relative price change over the momentum window and the score is that momentum as a
+ * share of the normalized range over the range window: a move counts as much as it is large next to the symbol's
+ * usual swing. A score of at least the threshold is Buy, at most minus the threshold Sell, anything else Hold.
+ * Both windows are answered in O(log n) by {@link SymbolSeries#aggregate(long, long)}, and the signals are indexed
+ * by recommendation so a lookup only touches the symbols with that recommendation.
+ */
+@Component
+public class RecommendationEngine implements TickListener {
+
+    private final TickStore tickStore;
+    private final long rangeWindow;
+    private final long momentumWindow;
+    private final double threshold;
+
+    private final Map<String, RecommendationSignal> signals = new ConcurrentHashMap<>();
+    private final Map<Recommendation, Set<String>> index = new EnumMap<>(Recommendation.class);
+
+    public RecommendationEngine(TickStore tickStore,
+                                @Value("${recommendation.range.window}") Duration rangeWindow,
+                                @Value("${recommendation.momentum.window}") Duration momentumWindow,
+                                @Value("${recommendation.threshold}") double threshold) {
+        this.tickStore = tickStore;
+        this.rangeWindow = rangeWindow.toMillis();
+        this.momentumWindow = momentumWindow.toMillis();
+        this.threshold = threshold;
+        for (Recommendation recommendation : Recommendation.values()) {
+            index.put(recommendation, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @PostConstruct
+    void register() {
+        tickStore.addListener(this);
+        for (SymbolSeries series : tickStore.allSeries()) {
+            recompute(series.getName());
+        }
+    }
+
+    @Override
+    public void ticksAdded(String name, List<Crypto> ticks) {
+        recompute(name);
+    }
+
+    @Override
+    public void tickRemoved(Crypto tick) {
+        recompute(tick.name());
+    }
+
+    @Override
+    public void seriesRemoved(String name) {
+        recompute(name);
+    }
+
+    public List<RecommendationSignal> signals() {
+        return signals.values().stream()
+                .sorted(Comparator.comparing(RecommendationSignal::name))
+                .toList();
+    }
+
+    /**
+     * The symbols with the recommendation, strongest signal first.
+     */
+    public List<RecommendationSignal> signals(Recommendation recommendation) {
+        return index.get(recommendation).stream()
+                .map(signals::get)
+                .filter(Objects::nonNull)
+                .filter(signal -> signal.recommendation() == recommendation)
+                .sorted(Comparator.comparingDouble((RecommendationSignal signal) -> Math.abs(signal.score())).reversed())
+                .toList();
+    }
+
+    private void recompute(String name) {
+        // compute serializes recomputes of one symbol, each reads the series as it is when it runs
+        signals.compute(name, (key, previous) -> {
+            RecommendationSignal signal = tickStore.series(name).map(this::signal).orElse(null);
+            if (previous != null && (signal == null || signal.recommendation() != previous.recommendation())) {
+                index.get(previous.recommendation()).remove(name);
+            }
+            if (signal != null) {
+                index.get(signal.recommendation()).add(name);
+            }
+            return signal;
+        });
+    }
+
+    private RecommendationSignal signal(SymbolSeries series) {
+        SymbolAggregate all = series.aggregate();
+        if (all == null) {
+            return null;
+        }
+        Crypto latest = all.last();
+        long to = latest.timing();
+        SymbolAggregate range = series.aggregate(to - rangeWindow, to);
+        SymbolAggregate momentumRange = series.aggregate(to - momentumWindow, to);
+        if (range == null || momentumRange == null) {
+            return null;
+        }
+        double normalizedRange = range.normalizedRange();
+        double startPrice = momentumRange.first().price();
+        double momentum = startPrice == 0 ? Double.NaN : latest.price() / startPrice - 1;
+        double score = momentum == 0 ? 0 : momentum / normalizedRange;
+        Recommendation recommendation;
+        if (score >= threshold) {
+            recommendation = Recommendation.BUY;
+        } else if (score <= -threshold) {
+            recommendation = Recommendation.SELL;
+        } else {
+            // Also NaN, when a zero price leaves the range or momentum undefined
+            recommendation = Recommendation.HOLD;
+        }
+        return new RecommendationSignal(series.getName(), recommendation, normalizedRange, momentum, score, latest);
+    }
+}
@@ -0,0 +1,282 @@
+package com.xmcy.crypto.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.store.TickListener;
+import com.xmcy.crypto.store.TickStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pushes every tick added to the {@link TickStore} to server-sent event subscribers.
+ * <p>
+ * Ticks go once into a shared ring buffer and each subscriber only keeps its read position in it, so memory per
+ * client is constant. Events are written with non-blocking servlet output, on the stream executor or on the
+ * container thread reporting a slow client writable again, so no thread ever waits on a client's socket. A
+ * subscriber that falls a whole ring behind skips the ticks it missed and gets the latest tick of each of its
+ * symbols that changed since its position instead.
+ */
+@Service
+public class TickStreamService implements TickListener {
+    private static final Logger logger = LoggerFactory.getLogger(TickStreamService.class);
+
+    private static final byte[] EVENT_START = "event:tick\ndata:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT_END = "\n\n".getBytes(StandardCharsets.UTF_8);
+    // Most bytes handed to a client per write, the container buffers a write it cannot send right away
+    private static final int MAX_WRITE_SIZE = 64 * 1024;
+
+    private final TickStore tickStore;
+    private final Executor executor;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long emitterTimeout;
+
+    private final AtomicReferenceArray<Crypto> ring;
+    private final int mask;
+    // Moved past a batch before its slots are overwritten, published only once they all are
+    private volatile long claimed;
+    private volatile long published;
+    private final Map<String, Latest> latest = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public TickStreamService(TickStore tickStore, @Qualifier("streamExecutor") Executor executor,
+                             ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${stream.buffer.size}") int bufferSize,
+                             @Value("${stream.emitter.timeout}") long emitterTimeout) {
+        this.tickStore = tickStore;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.emitterTimeout = emitterTimeout;
+        int capacity = Integer.highestOneBit(Math.max(bufferSize, 2) - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    @PostConstruct
+    void register() {
+        tickStore.addListener(this);
+        Gauge.builder("stream.subscribers", subscribers, CopyOnWriteArrayList::size).register(meterRegistry);
+    }
+
+    /**
+     * Turns the request into an event stream that stays open until the client leaves or the emitter timeout.
+     *
+     * @param symbols names to stream, or null or empty for every symbol
+     */
+    public void subscribe(Set<String> symbols, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        AsyncContext context = request.startAsync();
+        context.setTimeout(emitterTimeout);
+        Subscriber subscriber = new Subscriber(context, response.getOutputStream(),
+                symbols == null || symbols.isEmpty() ? null : symbols, published);
+        context.addListener(subscriber);
+        // The container calls onWritePossible once the request returns, which sends the headers
+        subscriber.out.setWriteListener(subscriber);
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void ticksAdded(String name, List<Crypto> ticks) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        synchronized (ring) {
+            long sequence = published;
+            long end = sequence + ticks.size();
+            claimed = end;
+            for (Crypto tick : ticks) {
+                ring.set((int) (sequence++ & mask), tick);
+            }
+            latest.put(name, new Latest(ticks.get(ticks.size() - 1), end - 1));
+            published = end;
+        }
+        for (Subscriber subscriber : subscribers) {
+            schedule(subscriber);
+        }
+    }
+
+    // Subscribers only follow new ticks, but a lagging one must not be sent a tick that is gone
+    @Override
+    public void tickRemoved(Crypto tick) {
+        latest.computeIfPresent(tick.name(), (name, last) ->
+                last.tick.id().equals(tick.id()) && last.tick.timing().equals(tick.timing()) ? null : last);
+    }
+
+    @Override
+    public void seriesRemoved(String name) {
+        latest.remove(name);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Only ever runs once at a time per subscriber, guarded by its scheduled flag
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                // Not ready registers the stream for onWritePossible, a call racing the reset finds ready again
+                if (!subscriber.out.isReady()) {
+                    subscriber.scheduled.set(false);
+                    if (!subscriber.out.isReady() || !subscriber.scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (subscriber.unflushed) {
+                    subscriber.unflushed = false;
+                    subscriber.out.flush();
+                    continue;
+                }
+                long end = published;
+                if (subscriber.cursor == end) {
+                    subscriber.scheduled.set(false);
+                    // A publish between the read and the reset would otherwise go unnoticed
+                    if (published == end || !subscriber.scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                byte[] events = nextEvents(subscriber, end);
+                if (events.length > 0) {
+                    subscriber.out.write(events);
+                    subscriber.unflushed = true;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Dropping stream subscriber", e);
+            drop(subscriber);
+        }
+    }
+
+    private byte[] nextEvents(Subscriber subscriber, long end) throws IOException {
+        ByteArrayOutputStream events = new ByteArrayOutputStream();
+        long sequence = subscriber.cursor;
+        if (claimed - sequence > mask) {
+            for (Latest last : latest.values()) {
+                // Later sequences belong to a batch still being published, the ring delivers them
+                if (last.sequence >= sequence && last.sequence < end && subscriber.wants(last.tick.name())) {
+                    appendEvent(events, last.tick);
+                }
+            }
+            subscriber.cursor = end;
+            return events.toByteArray();
+        }
+        for (; sequence < end && events.size() < MAX_WRITE_SIZE; sequence++) {
+            Crypto tick = ring.get((int) (sequence & mask));
+            // Seqlock check: once the claim is a whole ring past it, the slot read may already hold a newer tick
+            if (claimed - sequence > mask) {
+                break;
+            }
+            if (subscriber.wants(tick.name())) {
+                appendEvent(events, tick);
+            }
+        }
+        subscriber.cursor = sequence;
+        return events.toByteArray();
+    }
+
+    private void appendEvent(ByteArrayOutputStream events, Crypto tick) throws IOException {
+        events.write(EVENT_START);
+        events.write(objectMapper.writeValueAsBytes(tick));
+        events.write(EVENT_END);
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            try {
+                subscriber.context.complete();
+            } catch (IllegalStateException e) {
+                logger.debug("Stream subscriber already completed", e);
+            }
+        }
+    }
+
+    private record Latest(Crypto tick, long sequence) {
+    }
+
+    private final class Subscriber implements WriteListener, AsyncListener {
+        private final AsyncContext context;
+        private final ServletOutputStream out;
+        private final Set<String> symbols;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Only touched by the single drain running for this subscriber
+        private long cursor;
+        private boolean unflushed = true;
+
+        private Subscriber(AsyncContext context, ServletOutputStream out, Set<String> symbols, long cursor) {
+            this.context = context;
+            this.out = out;
+            this.symbols = symbols;
+            this.cursor = cursor;
+        }
+
+        private boolean wants(String name) {
+            return symbols == null || symbols.contains(name);
+        }
+
+        @Override
+        public void onWritePossible() {
+            if (scheduled.compareAndSet(false, true)) {
+                drain(this);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            logger.debug("Dropping stream subscriber", throwable);
+            drop(this);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            subscribers.remove(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            drop(this);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            drop(this);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Started once in subscribe
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.xmcy.crypto.service;
+
+import com.xmcy.crypto.exception.UploadJobNotFoundException;
+import com.xmcy.crypto.exception.UploadJobRejectedException;
+import com.xmcy.crypto.exception.UploadTooLargeException;
+import com.xmcy.crypto.helper.CsvParser;
+import com.xmcy.crypto.helper.DataInserter;
+import com.xmcy.crypto.model.IngestResult;
+import com.xmcy.crypto.model.UploadJob;
+import com.xmcy.crypto.model.UploadJobStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs CSV uploads in the background. The request body is spooled to a temporary file so the request returns as
+ * soon as it is received, then a job parses and inserts it batch by batch on the upload job executor, whose pool
+ * size caps how many jobs run at once. A job is only admitted, and its body only read, while fewer jobs than the
+ * executor's threads and queue can hold are waiting or running, and the body is cut off at the maximum upload size.
+ * Lines that cannot be parsed are counted and skipped, and finished jobs are kept for the retention period so their
+ * outcome can still be read.
+ */
+@Service
+public class UploadJobService {
+    private static final Logger logger = LoggerFactory.getLogger(UploadJobService.class);
+
+    private final CsvParser csvParser;
+    private final DataInserter dataInserter;
+    private final Executor executor;
+    private final int batchSize;
+    private final Duration retention;
+    private final int rejectedLinesKept;
+    private final long maxSize;
+    private final Semaphore admitted;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public UploadJobService(CsvParser csvParser, DataInserter dataInserter,
+                            @Qualifier("uploadJobExecutor") Executor executor,
+                            @Value("${upload.csv.batch.size}") int batchSize,
+                            @Value("${upload.job.retention}") Duration retention,
+                            @Value("${upload.job.rejected.lines.kept}") int rejectedLinesKept,
+                            @Value("#{${upload.job.concurrency} + ${upload.job.queue.capacity}}") int maxJobs,
+                            @Value("${upload.job.max.size}") DataSize maxSize) {
+        this.csvParser = csvParser;
+        this.dataInserter = dataInserter;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.rejectedLinesKept = rejectedLinesKept;
+        this.maxSize = maxSize.toBytes();
+        this.admitted = new Semaphore(maxJobs);
+    }
+
+    public UploadJob submit(InputStream csvContent) {
+        purgeFinishedJobs();
+        if (!admitted.tryAcquire()) {
+            throw new UploadJobRejectedException("Too many upload jobs queued, try again later");
+        }
+        Path file;
+        try {
+            file = spool(csvContent);
+        } catch (RuntimeException e) {
+            admitted.release();
+            throw e;
+        }
+        Job job = new Job(UUID.randomUUID().toString(), Instant.now());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, file));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            delete(file);
+            admitted.release();
+            throw new UploadJobRejectedException("Too many upload jobs queued, try again later");
+        }
+        return job.snapshot(Instant.now());
+    }
+
+    public UploadJob getJob(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new UploadJobNotFoundException("No upload job with id: " + id);
+        }
+        return job.snapshot(Instant.now());
+    }
+
+    private void run(Job job, Path file) {
+        job.startedAt = Instant.now();
+        job.status = UploadJobStatus.RUNNING;
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            csvParser.parseCsv(inputStream, batchSize,
+                    batch -> {
+                        IngestResult result = dataInserter.insertData(batch);
+                        job.rowsInserted.addAndGet(result.inserted());
+                        job.rowsUpdated.addAndGet(result.updated());
+                        job.rowsSkipped.addAndGet(result.skipped());
+                        job.rowsProcessed.addAndGet(batch.size());
+                    },
+                    job::reject);
+            job.status = UploadJobStatus.COMPLETED;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Upload job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.status = UploadJobStatus.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+            delete(file);
+            admitted.release();
+        }
+    }
+
+    private Path spool(InputStream csvContent) {
+        try {
+            Path file = Files.createTempFile("upload-job-", ".csv");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                copy(csvContent, out);
+            } catch (IOException | RuntimeException e) {
+                delete(file);
+                throw e;
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spool upload", e);
+        }
+    }
+
+    private void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        long copied = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            copied += read;
+            if (copied > maxSize) {
+                throw new UploadTooLargeException("Upload larger than " + maxSize + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled upload {}", file, e);
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private final class Job {
+        private final String id;
+        private final Instant submittedAt;
+        private final AtomicLong rowsProcessed = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final AtomicLong rowsInserted = new AtomicLong();
+        private final AtomicLong rowsUpdated = new AtomicLong();
+        private final AtomicLong rowsSkipped = new AtomicLong();
+        private final List<String> rejectedLines = new ArrayList<>();
+        private volatile UploadJobStatus status = UploadJobStatus.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Job(String id, Instant submittedAt) {
+            this.id = id;
+            this.submittedAt = submittedAt;
+        }
+
+        private void reject(String line) {
+            rowsRejected.incrementAndGet();
+            synchronized (rejectedLines) {
+                if (rejectedLines.size() < rejectedLinesKept) {
+                    rejectedLines.add(line);
+                }
+            }
+        }
+
+        private UploadJob snapshot(Instant now) {
+            Instant end = finishedAt;
+            Instant start = startedAt;
+            long processed = rowsProcessed.get();
+            List<String> lines;
+            synchronized (rejectedLines) {
+                lines = List.copyOf(rejectedLines);
+            }
+            long elapsedMillis = start == null ? 0 : Duration.between(start, end != null ? end : now).toMillis();
+            double rowsPerSecond = elapsedMillis > 0 ? processed * 1000.0 / elapsedMillis : 0;
+            return new UploadJob(id, status, processed, rowsRejected.get(), rowsInserted.get(), rowsUpdated.get(),
+                    rowsSkipped.get(), lines, rowsPerSecond,
+                    submittedAt, start, end, error);
+        }
+    }
+}
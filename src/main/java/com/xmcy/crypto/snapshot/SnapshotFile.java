@@ -0,0 +1,159 @@
+package com.xmcy.crypto.snapshot;
+
+import com.xmcy.crypto.store.SymbolSeries;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One symbol of a snapshot: a 32 byte header followed by the id, timing and price columns, each as count
+ * fixed-width 8 byte values so the file is used in place once mapped. The few ticks with a recommendation follow
+ * as (position, recommendation) pairs.
+ * <pre>
+ * int magic, int version, long count, long CRC32C of everything after the header, long recommendation bytes
+ * long[count] ids, long[count] timings, double[count] prices
+ * int pairs, (int position, UTF recommendation)[pairs]
+ * </pre>
+ */
+final class SnapshotFile {
+
+    static final int MAGIC = 0x58534E50;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 32;
+    private static final int TICK_BYTES = 24;
+
+    private SnapshotFile() {
+    }
+
+    static void write(Path file, SymbolSeries.Columns columns) throws IOException {
+        int count = columns.size();
+        byte[] recommendations = encodeRecommendations(columns.recommendations());
+        long size = HEADER_BYTES + (long) TICK_BYTES * count + recommendations.length;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Too many ticks for one snapshot file: " + count);
+        }
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            ByteBuffer payload = buffer.slice(HEADER_BYTES, (int) size - HEADER_BYTES);
+            payload.asLongBuffer().put(columns.ids()).put(columns.timings());
+            payload.slice(16 * count, 8 * count).asDoubleBuffer().put(columns.prices());
+            payload.put(TICK_BYTES * count, recommendations);
+            buffer.putInt(0, MAGIC)
+                    .putInt(4, VERSION)
+                    .putLong(8, count)
+                    .putLong(16, checksum(payload))
+                    .putLong(24, recommendations.length);
+            buffer.force();
+        }
+    }
+
+    /**
+     * Maps the file and verifies its header and checksum.
+     *
+     * @throws IOException if the file cannot be read or is not an intact snapshot file
+     */
+    static Ticks map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Unexpected size " + size + " of " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported snapshot version " + buffer.getInt(4) + " of " + file);
+            }
+            long count = buffer.getLong(8);
+            long recommendationBytes = buffer.getLong(24);
+            if (count < 0 || recommendationBytes < 0 || HEADER_BYTES + TICK_BYTES * count + recommendationBytes != size) {
+                throw new IOException("Tick count " + count + " does not match the size of " + file);
+            }
+            ByteBuffer payload = buffer.slice(HEADER_BYTES, (int) (size - HEADER_BYTES));
+            if (checksum(payload) != buffer.getLong(16)) {
+                throw new IOException("Checksum mismatch in " + file);
+            }
+            ByteBuffer recommendations = payload.slice(TICK_BYTES * (int) count, (int) recommendationBytes);
+            return new Ticks(payload, (int) count, decodeRecommendations(recommendations, (int) count, file));
+        }
+    }
+
+    private static byte[] encodeRecommendations(String[] recommendations) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int pairs = 0;
+        for (String recommendation : recommendations) {
+            if (recommendation != null) {
+                pairs++;
+            }
+        }
+        out.writeInt(pairs);
+        for (int i = 0; i < recommendations.length; i++) {
+            if (recommendations[i] != null) {
+                out.writeInt(i);
+                out.writeUTF(recommendations[i]);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    // Null when no tick has a recommendation
+    private static String[] decodeRecommendations(ByteBuffer section, int count, Path file) throws IOException {
+        byte[] bytes = new byte[section.remaining()];
+        section.get(bytes);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int pairs = in.readInt();
+        if (pairs == 0) {
+            return null;
+        }
+        String[] recommendations = new String[count];
+        for (int i = 0; i < pairs; i++) {
+            int position = in.readInt();
+            if (position < 0 || position >= count) {
+                throw new IOException("Recommendation of tick " + position + " out of range in " + file);
+            }
+            recommendations[position] = in.readUTF();
+        }
+        return recommendations;
+    }
+
+    private static long checksum(ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        return crc.getValue();
+    }
+
+    /**
+     * The columns of a mapped file, read straight from the mapping.
+     */
+    record Ticks(ByteBuffer payload, int count, String[] recommendations) {
+
+        long id(int index) {
+            return payload.getLong(8 * index);
+        }
+
+        long timing(int index) {
+            return payload.getLong(8 * (count + index));
+        }
+
+        double price(int index) {
+            return payload.getDouble(8 * (2 * count + index));
+        }
+
+        String recommendation(int index) {
+            return recommendations == null ? null : recommendations[index];
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.xmcy.crypto.snapshot;
+
+import com.xmcy.crypto.helper.CsvDataLoader;
+import com.xmcy.crypto.helper.DataInserter;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.store.SymbolSeries;
+import com.xmcy.crypto.store.TickStore;
+import com.xmcy.crypto.wal.WriteAheadLog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the tick data on disk between restarts, since the database itself lives in memory.
+ * <p>
+ * A snapshot is a generation directory holding one {@link SnapshotFile} per symbol and a MANIFEST listing them.
+ * The manifest is moved into place last, so a directory without one is an unfinished snapshot and ignored.
+ * Snapshots are taken every {@code snapshot.interval} milliseconds and on shutdown once the data is loaded, and
+ * only the newest generation is kept. The files, the manifest and both directories are synced before the older
+ * generations and the write-ahead log segments are deleted. On startup the newest generation is mapped and every
+ * file checked against its checksum before anything is inserted, so a damaged snapshot leaves the database
+ * untouched for the CSV load, as does one that fails while it is inserted.
+ */
+@Service
+public class SnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotService.class);
+
+    static final String MANIFEST = "MANIFEST";
+    private static final String GENERATION_PREFIX = "generation-";
+
+    private final TickStore tickStore;
+    private final DataInserter dataInserter;
+    private final CsvDataLoader csvDataLoader;
+    private final WriteAheadLog writeAheadLog;
+    private final boolean enabled;
+    private final Path directory;
+    private final int batchSize;
+    private long lastGeneration;
+
+    public SnapshotService(TickStore tickStore, DataInserter dataInserter, CsvDataLoader csvDataLoader,
+                           WriteAheadLog writeAheadLog,
+                           @Value("${snapshot.enabled}") boolean enabled,
+                           @Value("${snapshot.dir}") Path directory,
+                           @Value("${data.loader.batch.size}") int batchSize) {
+        this.tickStore = tickStore;
+        this.dataInserter = dataInserter;
+        this.csvDataLoader = csvDataLoader;
+        this.writeAheadLog = writeAheadLog;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads the newest snapshot into the database and the TickStore.
+     *
+     * @return false if snapshots are disabled, there is none, or it is damaged, in which case nothing was loaded
+     */
+    public boolean restore() {
+        if (!enabled) {
+            return false;
+        }
+        Optional<Path> generation;
+        try {
+            generation = latestGeneration();
+        } catch (IOException e) {
+            logger.warn("Could not list snapshots in {}", directory, e);
+            return false;
+        }
+        if (generation.isEmpty()) {
+            logger.info("No snapshot in {}", directory);
+            return false;
+        }
+        long start = System.nanoTime();
+        List<String> names = new ArrayList<>();
+        List<SnapshotFile.Ticks> symbols = new ArrayList<>();
+        try {
+            Properties manifest = readManifest(generation.get());
+            if (!String.valueOf(SnapshotFile.VERSION).equals(manifest.getProperty("format.version"))) {
+                throw new IOException("Unsupported snapshot format " + manifest.getProperty("format.version"));
+            }
+            int count = Integer.parseInt(manifest.getProperty("symbols"));
+            for (int i = 0; i < count; i++) {
+                String name = required(manifest, "symbol." + i + ".name");
+                SnapshotFile.Ticks ticks = SnapshotFile.map(generation.get().resolve(required(manifest, "symbol." + i + ".file")));
+                if (ticks.count() != Integer.parseInt(required(manifest, "symbol." + i + ".count"))) {
+                    throw new IOException("Tick count of " + name + " does not match the manifest");
+                }
+                names.add(name);
+                symbols.add(ticks);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Snapshot {} is damaged, falling back to the CSV files", generation.get(), e);
+            return false;
+        }
+
+        long rows = 0;
+        try {
+            for (int i = 0; i < symbols.size(); i++) {
+                rows += load(names.get(i), symbols.get(i));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not load snapshot {}, falling back to the CSV files", generation.get(), e);
+            dataInserter.clearData();
+            return false;
+        }
+        logger.info("Restored {} rows of {} symbols from {} in {} ms", rows, symbols.size(), generation.get(),
+                (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${snapshot.interval}", initialDelayString = "${snapshot.interval}")
+    public void scheduledSnapshot() {
+        snapshotIfLoaded();
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshotIfLoaded();
+    }
+
+    /**
+     * Writes a new generation from the TickStore and removes the older ones, along with the write-ahead log
+     * segments it covers.
+     *
+     * @return the generation directory written
+     */
+    public synchronized Path snapshot() throws IOException {
+        long walSegment = writeAheadLog.rotate();
+        Files.createDirectories(directory);
+        lastGeneration = Math.max(System.currentTimeMillis(), lastGeneration + 1);
+        Path generation = directory.resolve(GENERATION_PREFIX + String.format("%019d", lastGeneration));
+        Files.createDirectory(generation);
+        Properties manifest = new Properties();
+        manifest.setProperty("format.version", String.valueOf(SnapshotFile.VERSION));
+        manifest.setProperty("created", Instant.now().toString());
+        int index = 0;
+        long rows = 0;
+        for (SymbolSeries series : tickStore.allSeries()) {
+            SymbolSeries.Columns columns = series.columns();
+            String file = "symbol-" + index + ".ticks";
+            SnapshotFile.write(generation.resolve(file), columns);
+            manifest.setProperty("symbol." + index + ".name", series.getName());
+            manifest.setProperty("symbol." + index + ".file", file);
+            manifest.setProperty("symbol." + index + ".count", String.valueOf(columns.size()));
+            rows += columns.size();
+            index++;
+        }
+        manifest.setProperty("symbols", String.valueOf(index));
+        Path temporary = generation.resolve(MANIFEST + ".tmp");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        manifest.store(bytes, null);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, generation.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE);
+        // The new generation has to survive a power loss before the one it replaces and the log segments go
+        syncDirectory(generation);
+        syncDirectory(directory);
+        logger.info("Wrote snapshot {} with {} rows", generation, rows);
+        deleteGenerationsExcept(generation);
+        writeAheadLog.deleteSegmentsBefore(walSegment);
+        return generation;
+    }
+
+    private void snapshotIfLoaded() {
+        // A snapshot of a half loaded store would replace a complete one
+        if (!enabled || !csvDataLoader.isLoaded()) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not write snapshot to {}", directory, e);
+        }
+    }
+
+    private long load(String name, SnapshotFile.Ticks ticks) {
+        List<Crypto> batch = new ArrayList<>(Math.min(batchSize, ticks.count()));
+        for (int i = 0; i < ticks.count(); i++) {
+            batch.add(new Crypto(ticks.id(i), ticks.timing(i), name, ticks.price(i), ticks.recommendation(i)));
+            if (batch.size() == batchSize) {
+                dataInserter.restoreData(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            dataInserter.restoreData(batch);
+        }
+        return ticks.count();
+    }
+
+    private Optional<Path> latestGeneration() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.getFileName().toString().startsWith(GENERATION_PREFIX))
+                    .filter(path -> Files.exists(path.resolve(MANIFEST)))
+                    .max(Comparator.comparing(path -> path.getFileName().toString()));
+        }
+    }
+
+    private void deleteGenerationsExcept(Path keep) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path generation : paths.filter(path -> path.getFileName().toString().startsWith(GENERATION_PREFIX))
+                    .filter(path -> !path.equals(keep))
+                    .toList()) {
+                try (Stream<Path> files = Files.walk(generation)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void syncDirectory(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Windows cannot open a directory as a file to sync it
+        }
+    }
+
+    private static Properties readManifest(Path generation) throws IOException {
+        Properties manifest = new Properties();
+        try (InputStream inputStream = Files.newInputStream(generation.resolve(MANIFEST))) {
+            manifest.load(inputStream);
+        }
+        return manifest;
+    }
+
+    private static String required(Properties manifest, String key) throws IOException {
+        String value = manifest.getProperty(key);
+        if (value == null) {
+            throw new IOException("Snapshot manifest is missing " + key);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,221 @@
+package com.xmcy.crypto.store;
+
+import com.xmcy.crypto.model.Candle;
+import com.xmcy.crypto.model.CandleResolution;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Open/high/low/close/count candles of one symbol at one resolution, ordered by bucket start.
+ * Not thread-safe on its own, it is guarded by the lock of the owning {@link SymbolSeries}.
+ */
+public class CandleSeries {
+    private static final int INITIAL_CAPACITY = 16;
+
+    public enum Point {
+        OPEN, HIGH, LOW, CLOSE
+    }
+
+    private final CandleResolution resolution;
+    private final ZoneId zone;
+
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private double[] opens = new double[INITIAL_CAPACITY];
+    private double[] highs = new double[INITIAL_CAPACITY];
+    private double[] lows = new double[INITIAL_CAPACITY];
+    private double[] closes = new double[INITIAL_CAPACITY];
+    private long[] counts = new long[INITIAL_CAPACITY];
+    // Timing of the tick behind each of open/high/low/close, used to find that tick again
+    private long[] openTimes = new long[INITIAL_CAPACITY];
+    private long[] highTimes = new long[INITIAL_CAPACITY];
+    private long[] lowTimes = new long[INITIAL_CAPACITY];
+    private long[] closeTimes = new long[INITIAL_CAPACITY];
+    private int size;
+
+    // Boundaries of the bucket last resolved, ticks arriving in order only compute them once per bucket
+    private long cachedStart = Long.MAX_VALUE;
+    private long cachedEnd = Long.MIN_VALUE;
+
+    public CandleSeries(CandleResolution resolution, ZoneId zone) {
+        this.resolution = resolution;
+        this.zone = zone;
+    }
+
+    public CandleResolution getResolution() {
+        return resolution;
+    }
+
+    public long bucketStart(long timing) {
+        if (timing < cachedStart || timing >= cachedEnd) {
+            cachedStart = resolution.bucketStart(timing, zone);
+            cachedEnd = resolution.nextBucketStart(cachedStart, zone);
+        }
+        return cachedStart;
+    }
+
+    public long bucketEnd(long bucketStart) {
+        return bucketStart == cachedStart ? cachedEnd : resolution.nextBucketStart(bucketStart, zone);
+    }
+
+    public void add(long timing, double price) {
+        long start = bucketStart(timing);
+        int index = indexOf(start);
+        if (index < 0) {
+            insertBucket(-index - 1, start, timing, price);
+            return;
+        }
+        if (timing < openTimes[index]) {
+            opens[index] = price;
+            openTimes[index] = timing;
+        }
+        if (timing >= closeTimes[index]) {
+            closes[index] = price;
+            closeTimes[index] = timing;
+        }
+        if (price > highs[index]) {
+            highs[index] = price;
+            highTimes[index] = timing;
+        }
+        if (price < lows[index]) {
+            lows[index] = price;
+            lowTimes[index] = timing;
+        }
+        counts[index]++;
+    }
+
+    public void removeBucket(long bucketStart) {
+        int index = indexOf(bucketStart);
+        if (index < 0) {
+            return;
+        }
+        int moved = size - index - 1;
+        System.arraycopy(starts, index + 1, starts, index, moved);
+        System.arraycopy(opens, index + 1, opens, index, moved);
+        System.arraycopy(highs, index + 1, highs, index, moved);
+        System.arraycopy(lows, index + 1, lows, index, moved);
+        System.arraycopy(closes, index + 1, closes, index, moved);
+        System.arraycopy(counts, index + 1, counts, index, moved);
+        System.arraycopy(openTimes, index + 1, openTimes, index, moved);
+        System.arraycopy(highTimes, index + 1, highTimes, index, moved);
+        System.arraycopy(lowTimes, index + 1, lowTimes, index, moved);
+        System.arraycopy(closeTimes, index + 1, closeTimes, index, moved);
+        size--;
+    }
+
+    /**
+     * Recomputes the bucket from the ticks at positions [from, to) of the timing ordered columns, in place when it
+     * exists and is not left empty.
+     */
+    public void rebuildBucket(long bucketStart, long[] timings, double[] prices, int from, int to) {
+        int index = indexOf(bucketStart);
+        if (index < 0 || from >= to) {
+            removeBucket(bucketStart);
+            for (int i = from; i < to; i++) {
+                add(timings[i], prices[i]);
+            }
+            return;
+        }
+        opens[index] = highs[index] = lows[index] = closes[index] = prices[from];
+        openTimes[index] = highTimes[index] = lowTimes[index] = closeTimes[index] = timings[from];
+        counts[index] = 1;
+        for (int i = from + 1; i < to; i++) {
+            add(timings[i], prices[i]);
+        }
+    }
+
+    /**
+     * Candles of the buckets overlapping [from, to], including the bucket from falls in the middle of.
+     */
+    public List<Candle> candles(long from, long to) {
+        int index = indexOf(from);
+        int start = index;
+        if (index < 0) {
+            start = -index - 1;
+            if (start > 0 && from < bucketEnd(starts[start - 1])) {
+                start--;
+            }
+        }
+        List<Candle> candles = new ArrayList<>();
+        for (int i = start; i < size && starts[i] <= to; i++) {
+            candles.add(new Candle(starts[i], opens[i], highs[i], lows[i], closes[i], counts[i]));
+        }
+        return candles;
+    }
+
+    /**
+     * Timing of the tick behind the given point of the candle starting at bucketStart, or Long.MIN_VALUE if there is no such candle.
+     */
+    public long timingOf(long bucketStart, Point point) {
+        int index = indexOf(bucketStart);
+        if (index < 0) {
+            return Long.MIN_VALUE;
+        }
+        return switch (point) {
+            case OPEN -> openTimes[index];
+            case HIGH -> highTimes[index];
+            case LOW -> lowTimes[index];
+            case CLOSE -> closeTimes[index];
+        };
+    }
+
+    public double priceOf(long bucketStart, Point point) {
+        int index = indexOf(bucketStart);
+        return switch (point) {
+            case OPEN -> opens[index];
+            case HIGH -> highs[index];
+            case LOW -> lows[index];
+            case CLOSE -> closes[index];
+        };
+    }
+
+    private int indexOf(long bucketStart) {
+        // Ticks mostly land in the newest bucket
+        if (size > 0 && starts[size - 1] == bucketStart) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(starts, 0, size, bucketStart);
+    }
+
+    private void insertBucket(int position, long start, long timing, double price) {
+        if (size == starts.length) {
+            int capacity = size + (size >> 1) + 1;
+            starts = Arrays.copyOf(starts, capacity);
+            opens = Arrays.copyOf(opens, capacity);
+            highs = Arrays.copyOf(highs, capacity);
+            lows = Arrays.copyOf(lows, capacity);
+            closes = Arrays.copyOf(closes, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            openTimes = Arrays.copyOf(openTimes, capacity);
+            highTimes = Arrays.copyOf(highTimes, capacity);
+            lowTimes = Arrays.copyOf(lowTimes, capacity);
+            closeTimes = Arrays.copyOf(closeTimes, capacity);
+        }
+        int moved = size - position;
+        if (moved > 0) {
+            System.arraycopy(starts, position, starts, position + 1, moved);
+            System.arraycopy(opens, position, opens, position + 1, moved);
+            System.arraycopy(highs, position, highs, position + 1, moved);
+            System.arraycopy(lows, position, lows, position + 1, moved);
+            System.arraycopy(closes, position, closes, position + 1, moved);
+            System.arraycopy(counts, position, counts, position + 1, moved);
+            System.arraycopy(openTimes, position, openTimes, position + 1, moved);
+            System.arraycopy(highTimes, position, highTimes, position + 1, moved);
+            System.arraycopy(lowTimes, position, lowTimes, position + 1, moved);
+            System.arraycopy(closeTimes, position, closeTimes, position + 1, moved);
+        }
+        starts[position] = start;
+        opens[position] = price;
+        highs[position] = price;
+        lows[position] = price;
+        closes[position] = price;
+        counts[position] = 1;
+        openTimes[position] = timing;
+        highTimes[position] = timing;
+        lowTimes[position] = timing;
+        closeTimes[position] = timing;
+        size++;
+    }
+}
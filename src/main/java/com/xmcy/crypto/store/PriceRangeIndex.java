@@ -0,0 +1,121 @@
+package com.xmcy.crypto.store;
+
+/**
+ * Bottom-up segment tree over the price column of a {@link SymbolSeries}, holding the position of the minimum
+ * and maximum price of every node so a range min/max costs O(log n). Appends and price changes update one
+ * leaf-to-root path; inserts in the middle and removals shift positions, so they mark the tree stale and it is
+ * rebuilt on the next query.
+ * Not thread-safe on its own, it is guarded by the owning series.
+ */
+class PriceRangeIndex {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int capacity = INITIAL_CAPACITY;
+    private int[] minima = new int[2 * INITIAL_CAPACITY];
+    private int[] maxima = new int[2 * INITIAL_CAPACITY];
+    // Readers rebuild under the owning series' read lock, the volatile write publishes the rebuilt tree
+    private volatile boolean stale = true;
+
+    boolean isStale() {
+        return stale;
+    }
+
+    void invalidate() {
+        stale = true;
+    }
+
+    void rebuild(int size, double[] prices) {
+        if (size > capacity) {
+            capacity = Math.max(Integer.highestOneBit(size - 1) << 1, 2 * capacity);
+            minima = new int[2 * capacity];
+            maxima = new int[2 * capacity];
+        }
+        for (int i = 0; i < capacity; i++) {
+            minima[capacity + i] = i < size ? i : -1;
+            maxima[capacity + i] = i < size ? i : -1;
+        }
+        for (int node = capacity - 1; node > 0; node--) {
+            minima[node] = lower(minima[2 * node], minima[2 * node + 1], prices);
+            maxima[node] = higher(maxima[2 * node], maxima[2 * node + 1], prices);
+        }
+        stale = false;
+    }
+
+    void appended(int position, double[] prices) {
+        if (stale) {
+            return;
+        }
+        if (position >= capacity) {
+            // Doubling keeps the rebuild cost amortized O(1) per append
+            rebuild(position + 1, prices);
+            return;
+        }
+        int node = capacity + position;
+        minima[node] = position;
+        maxima[node] = position;
+        updated(position, prices);
+    }
+
+    /** The price at position changed in place. */
+    void updated(int position, double[] prices) {
+        if (stale) {
+            return;
+        }
+        for (int node = (capacity + position) >> 1; node > 0; node >>= 1) {
+            minima[node] = lower(minima[2 * node], minima[2 * node + 1], prices);
+            maxima[node] = higher(maxima[2 * node], maxima[2 * node + 1], prices);
+        }
+    }
+
+    /** Position of the lowest price within positions [from, to), the earliest on ties, or -1 for an empty range. */
+    int minIndex(int from, int to, double[] prices) {
+        int result = -1;
+        for (int left = from + capacity, right = to + capacity; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                result = lower(result, minima[left++], prices);
+            }
+            if ((right & 1) == 1) {
+                result = lower(result, minima[--right], prices);
+            }
+        }
+        return result;
+    }
+
+    /** Position of the highest price within positions [from, to), the earliest on ties, or -1 for an empty range. */
+    int maxIndex(int from, int to, double[] prices) {
+        int result = -1;
+        for (int left = from + capacity, right = to + capacity; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                result = higher(result, maxima[left++], prices);
+            }
+            if ((right & 1) == 1) {
+                result = higher(result, maxima[--right], prices);
+            }
+        }
+        return result;
+    }
+
+    /** Position of the lowest price within positions [0, size) other than skipped, the earliest on ties, or -1. */
+    int minIndexWithout(int skipped, int size, double[] prices) {
+        return lower(minIndex(0, skipped, prices), minIndex(skipped + 1, size, prices), prices);
+    }
+
+    /** Position of the highest price within positions [0, size) other than skipped, the earliest on ties, or -1. */
+    int maxIndexWithout(int skipped, int size, double[] prices) {
+        return higher(maxIndex(0, skipped, prices), maxIndex(skipped + 1, size, prices), prices);
+    }
+
+    private static int lower(int a, int b, double[] prices) {
+        if (a < 0 || b < 0) {
+            return a < 0 ? b : a;
+        }
+        return prices[b] < prices[a] || (prices[b] == prices[a] && b < a) ? b : a;
+    }
+
+    private static int higher(int a, int b, double[] prices) {
+        if (a < 0 || b < 0) {
+            return a < 0 ? b : a;
+        }
+        return prices[b] > prices[a] || (prices[b] == prices[a] && b < a) ? b : a;
+    }
+}
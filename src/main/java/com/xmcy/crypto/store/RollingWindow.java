@@ -0,0 +1,177 @@
+package com.xmcy.crypto.store;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Min/max of the ticks since the start of the day {@code days} days ago, kept in two monotonic deques of
+ * positions in the owning {@link SymbolSeries}. Appends and window moves are amortized O(1); any other change
+ * to the series shifts positions, so the window is marked stale and rebuilt from the series on the next query.
+ * Not thread-safe on its own, it is guarded by the owning series.
+ */
+class RollingWindow {
+
+    /** Windows kept incrementally, other day counts are answered by a scan over the range. */
+    static final int[] DAYS = {1, 7, 30, 90};
+
+    private final int days;
+    private final ZoneId zone;
+
+    private long start = Long.MIN_VALUE;
+    private long todayStart = Long.MAX_VALUE;
+    private long tomorrowStart = Long.MIN_VALUE;
+
+    private int first;
+    private final IndexDeque minima = new IndexDeque();
+    private final IndexDeque maxima = new IndexDeque();
+    private boolean stale = true;
+
+    RollingWindow(int days, ZoneId zone) {
+        this.days = days;
+        this.zone = zone;
+    }
+
+    int getDays() {
+        return days;
+    }
+
+    static long startOf(int days, long now, ZoneId zone) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(now), zone).minusDays(days)
+                .atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Moves the window to the day of now and returns its start; the date math only runs once per day.
+     */
+    long advance(long now) {
+        if (now < todayStart || now >= tomorrowStart) {
+            LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(now), zone);
+            todayStart = today.atStartOfDay(zone).toInstant().toEpochMilli();
+            tomorrowStart = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            long newStart = today.minusDays(days).atStartOfDay(zone).toInstant().toEpochMilli();
+            // Going back in time brings back ticks the deques have already dropped
+            if (newStart < start) {
+                stale = true;
+            }
+            start = newStart;
+        }
+        return start;
+    }
+
+    boolean isStale() {
+        return stale;
+    }
+
+    void invalidate() {
+        stale = true;
+        minima.clear();
+        maxima.clear();
+    }
+
+    void rebuild(int from, int to, double[] prices) {
+        minima.clear();
+        maxima.clear();
+        first = from;
+        for (int i = from; i < to; i++) {
+            push(i, prices);
+        }
+        stale = false;
+    }
+
+    void appended(int position, long[] timings, double[] prices) {
+        if (stale) {
+            return;
+        }
+        push(position, prices);
+        evictBefore(start, timings, position + 1);
+    }
+
+    void evictBefore(long windowStart, long[] timings, int size) {
+        while (!minima.isEmpty() && timings[minima.peekFirst()] < windowStart) {
+            minima.pollFirst();
+        }
+        while (!maxima.isEmpty() && timings[maxima.peekFirst()] < windowStart) {
+            maxima.pollFirst();
+        }
+        // Every tick still in a deque is inside the window, so the window's first tick is at most the oldest of them
+        int oldest = minima.isEmpty() ? size : Math.min(minima.peekFirst(), maxima.peekFirst());
+        while (first < oldest && timings[first] < windowStart) {
+            first++;
+        }
+    }
+
+    /** Position of the first tick in the window, only meaningful while the window is not empty. */
+    int first() {
+        return first;
+    }
+
+    int minIndex() {
+        return minima.isEmpty() ? -1 : minima.peekFirst();
+    }
+
+    int maxIndex() {
+        return maxima.isEmpty() ? -1 : maxima.peekFirst();
+    }
+
+    private void push(int position, double[] prices) {
+        double price = prices[position];
+        // Equal prices are kept so ties resolve to the earliest tick, like the range scan
+        while (!minima.isEmpty() && prices[minima.peekLast()] > price) {
+            minima.pollLast();
+        }
+        minima.addLast(position);
+        while (!maxima.isEmpty() && prices[maxima.peekLast()] < price) {
+            maxima.pollLast();
+        }
+        maxima.addLast(position);
+    }
+
+    /** Growable ring buffer of positions, avoids boxing in ArrayDeque. */
+    private static final class IndexDeque {
+        private int[] elements = new int[16];
+        private int head;
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int peekFirst() {
+            return elements[head];
+        }
+
+        int peekLast() {
+            return elements[(head + size - 1) & (elements.length - 1)];
+        }
+
+        void pollFirst() {
+            head = (head + 1) & (elements.length - 1);
+            size--;
+        }
+
+        void pollLast() {
+            size--;
+        }
+
+        void addLast(int position) {
+            if (size == elements.length) {
+                int[] grown = new int[elements.length << 1];
+                int tail = elements.length - head;
+                System.arraycopy(elements, head, grown, 0, Math.min(tail, size));
+                if (tail < size) {
+                    System.arraycopy(elements, 0, grown, tail, size - tail);
+                }
+                elements = grown;
+                head = 0;
+            }
+            elements[(head + size) & (elements.length - 1)] = position;
+            size++;
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.xmcy.crypto.store;
+
+import com.xmcy.crypto.model.Crypto;
+
+public record SymbolAggregate(Crypto first, Crypto last, Crypto min, Crypto max) {
+
+    /**
+     * (max - min) / min, or NaN when the minimum price is zero.
+     */
+    public double normalizedRange() {
+        double minPrice = min.price();
+        return minPrice == 0 ? Double.NaN : (max.price() - minPrice) / minPrice;
+    }
+
+    public Crypto point(CandleSeries.Point point) {
+        return switch (point) {
+            case OPEN -> first;
+            case HIGH -> max;
+            case LOW -> min;
+            case CLOSE -> last;
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package com.xmcy.crypto.store;
+
+import com.xmcy.crypto.exception.CryptoNotFoundException;
+import com.xmcy.crypto.exception.InvalidCryptoDataException;
+import com.xmcy.crypto.model.CryptoSymbol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The cryptocurrencies ticks are accepted for, loaded from {@code crypto.symbols} ({@code Name:SYMBOL} entries)
+ * and extendable at runtime.
+ * <p>
+ * Names and symbols share one case-insensitive key space and a lookup is a hash lookup: every key is stored as
+ * registered and lower-cased, so the usual spellings hit without lower-casing the input first. Lookups return the
+ * registered name instance, so the ticks of a symbol share one name string.
+ */
+@Component
+public class SymbolRegistry {
+
+    private final Map<String, CryptoSymbol> byKey = new ConcurrentHashMap<>();
+    private volatile CryptoSymbol[] byId = new CryptoSymbol[0];
+
+    public SymbolRegistry(@Value("${crypto.symbols}") List<String> symbols) {
+        for (String entry : symbols) {
+            int separator = entry.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid crypto.symbols entry, expected Name:SYMBOL: " + entry);
+            }
+            register(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+    }
+
+    /**
+     * Registers the symbol, or returns it if it is registered already with the same name and symbol.
+     *
+     * @throws InvalidCryptoDataException if the name or symbol is blank or taken by another symbol
+     */
+    public synchronized CryptoSymbol register(String name, String symbol) {
+        if (name == null || name.isBlank() || symbol == null || symbol.isBlank()) {
+            throw new InvalidCryptoDataException("Name and symbol are required");
+        }
+        CryptoSymbol existingName = byKey.get(lowerCase(name));
+        CryptoSymbol existingSymbol = byKey.get(lowerCase(symbol));
+        if (existingName != null && existingName == existingSymbol) {
+            return existingName;
+        }
+        if (existingName != null || existingSymbol != null) {
+            throw new InvalidCryptoDataException("Name or symbol already registered: " + name + ", " + symbol);
+        }
+        CryptoSymbol[] registered = byId;
+        CryptoSymbol cryptoSymbol = new CryptoSymbol(registered.length, name, symbol.toUpperCase(Locale.ROOT));
+        for (String key : List.of(name, cryptoSymbol.symbol())) {
+            byKey.put(key, cryptoSymbol);
+            byKey.put(lowerCase(key), cryptoSymbol);
+        }
+        CryptoSymbol[] extended = Arrays.copyOf(registered, registered.length + 1);
+        extended[registered.length] = cryptoSymbol;
+        byId = extended;
+        return cryptoSymbol;
+    }
+
+    /**
+     * The symbol with the name or symbol, ignoring case.
+     *
+     * @throws CryptoNotFoundException if there is none
+     */
+    public CryptoSymbol find(String nameOrSymbol) {
+        if (nameOrSymbol != null) {
+            CryptoSymbol cryptoSymbol = byKey.get(nameOrSymbol);
+            if (cryptoSymbol == null) {
+                cryptoSymbol = byKey.get(lowerCase(nameOrSymbol));
+            }
+            if (cryptoSymbol != null) {
+                return cryptoSymbol;
+            }
+        }
+        throw new CryptoNotFoundException("Invalid crypto symbol: " + nameOrSymbol);
+    }
+
+    /**
+     * The registered name of the symbol with the name or symbol, the key ticks are stored under.
+     */
+    public String name(String nameOrSymbol) {
+        return find(nameOrSymbol).name();
+    }
+
+    public CryptoSymbol byId(int id) {
+        CryptoSymbol[] registered = byId;
+        if (id < 0 || id >= registered.length) {
+            throw new CryptoNotFoundException("No crypto symbol with id: " + id);
+        }
+        return registered[id];
+    }
+
+    public List<CryptoSymbol> symbols() {
+        return List.of(byId);
+    }
+
+    private static String lowerCase(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,606 @@
+package com.xmcy.crypto.store;
+
+import com.xmcy.crypto.model.Candle;
+import com.xmcy.crypto.model.CandleResolution;
+import com.xmcy.crypto.model.Crypto;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ticks of a single symbol kept in timing order as primitive columns.
+ */
+public class SymbolSeries {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final String name;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] timings = new long[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private String[] recommendations; // allocated on first non-null recommendation
+    private int size;
+    private volatile SymbolAggregate aggregate;
+    private final Map<CandleResolution, CandleSeries> candles = new EnumMap<>(CandleResolution.class);
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final RollingWindow[] windows = new RollingWindow[RollingWindow.DAYS.length];
+    private final PriceRangeIndex rangeIndex = new PriceRangeIndex();
+
+    public SymbolSeries(String name) {
+        this.name = name;
+        for (CandleResolution resolution : CandleResolution.values()) {
+            candles.put(resolution, new CandleSeries(resolution, zone));
+        }
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new RollingWindow(RollingWindow.DAYS[i], zone);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The zone the daily and monthly candles and the rolling windows are cut in.
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * First, last, min and max tick of the whole series, or null while it is empty.
+     * Published as an immutable snapshot so readers never take the lock.
+     */
+    public SymbolAggregate aggregate() {
+        return aggregate;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies of the id, timing, price and recommendation columns in timing order, taken under one lock so they
+     * line up.
+     */
+    public Columns columns() {
+        lock.readLock().lock();
+        try {
+            return new Columns(Arrays.copyOf(ids, size), Arrays.copyOf(timings, size), Arrays.copyOf(prices, size),
+                    recommendations == null ? new String[size] : Arrays.copyOf(recommendations, size));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(Crypto crypto) {
+        lock.writeLock().lock();
+        try {
+            int position = insert(crypto);
+            aggregateInserted(position);
+            candlesAdded(crypto.timing(), crypto.price());
+            if (position == size - 1) {
+                indexesAppended(position);
+            } else {
+                indexesInvalidated();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(List<Crypto> cryptos) {
+        if (cryptos.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(size + cryptos.size());
+            if (isSorted(cryptos) && (size == 0 || timings[size - 1] <= cryptos.get(0).timing())) {
+                int appendedFrom = size;
+                for (Crypto crypto : cryptos) {
+                    indexesAppended(insert(crypto));
+                    candlesAdded(crypto.timing(), crypto.price());
+                }
+                aggregateAppended(appendedFrom);
+            } else {
+                merge(cryptos);
+                aggregate = scanAggregate(0, size, null);
+                indexesInvalidated();
+                for (Crypto crypto : cryptos) {
+                    candlesAdded(crypto.timing(), crypto.price());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the prices of the ticks with the ids and timings in place. Their positions do not change, so the indexes
+     * and candles are refreshed once for the whole batch instead of once per tick.
+     *
+     * @return the number of ticks found
+     */
+    public int updatePrices(List<Crypto> updates) {
+        lock.writeLock().lock();
+        try {
+            List<Long> updatedTimings = new ArrayList<>(updates.size());
+            for (Crypto crypto : updates) {
+                int position = positionOf(crypto.id(), crypto.timing());
+                if (position >= 0) {
+                    prices[position] = crypto.price();
+                    indexedRange().updated(position, prices);
+                    updatedTimings.add(crypto.timing());
+                }
+            }
+            if (!updatedTimings.isEmpty()) {
+                PriceRangeIndex index = indexedRange();
+                aggregate = new SymbolAggregate(toCrypto(0), toCrypto(size - 1),
+                        toCrypto(index.minIndex(0, size, prices)), toCrypto(index.maxIndex(0, size, prices)));
+                windowsInvalidated();
+                candlesRebuilt(updatedTimings);
+            }
+            return updatedTimings.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Crypto> remove(long id, long timing) {
+        lock.writeLock().lock();
+        try {
+            return removeFirstMatch(id, lowerBound(timing), upperBound(timing));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The tick stamped exactly at timing, the first one should there be several.
+     */
+    public Optional<Crypto> at(long timing) {
+        lock.readLock().lock();
+        try {
+            int position = lowerBound(timing);
+            return position < size && timings[position] == timing ? Optional.of(toCrypto(position)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Crypto> first(long from, long to) {
+        lock.readLock().lock();
+        try {
+            int start = lowerBound(from);
+            return start < upperBound(to) ? Optional.of(toCrypto(start)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Crypto> last(long from, long to) {
+        lock.readLock().lock();
+        try {
+            int end = upperBound(to);
+            return lowerBound(from) < end ? Optional.of(toCrypto(end - 1)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Crypto> min(long from, long to) {
+        lock.readLock().lock();
+        try {
+            int min = indexedRange().minIndex(lowerBound(from), upperBound(to), prices);
+            return min < 0 ? Optional.empty() : Optional.of(toCrypto(min));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Crypto> max(long from, long to) {
+        lock.readLock().lock();
+        try {
+            int max = indexedRange().maxIndex(lowerBound(from), upperBound(to), prices);
+            return max < 0 ? Optional.empty() : Optional.of(toCrypto(max));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * First, last, min and max tick within [from, to] in O(log n), or null when the range holds no tick.
+     */
+    public SymbolAggregate aggregate(long from, long to) {
+        lock.readLock().lock();
+        try {
+            int start = lowerBound(from);
+            int end = upperBound(to);
+            if (start >= end) {
+                return null;
+            }
+            PriceRangeIndex index = indexedRange();
+            return new SymbolAggregate(toCrypto(start), toCrypto(end - 1),
+                    toCrypto(index.minIndex(start, end, prices)), toCrypto(index.maxIndex(start, end, prices)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * First, last, min and max tick since the start of the day lastNoOfDays days before now.
+     * The windows in {@link RollingWindow#DAYS} answer in amortized O(1), other day counts scan the range.
+     */
+    public SymbolAggregate rollingAggregate(int lastNoOfDays, long now) {
+        RollingWindow window = windowFor(lastNoOfDays);
+        lock.readLock().lock();
+        try {
+            // The windows run up to the newest tick, ticks stamped after now need the bounded scan
+            if (window != null && (size == 0 || timings[size - 1] <= now)) {
+                synchronized (window) {
+                    long start = window.advance(now);
+                    if (window.isStale()) {
+                        window.rebuild(lowerBound(start), size, prices);
+                    } else {
+                        window.evictBefore(start, timings, size);
+                    }
+                    int min = window.minIndex();
+                    if (min < 0) {
+                        return null;
+                    }
+                    return new SymbolAggregate(toCrypto(window.first()), toCrypto(size - 1),
+                            toCrypto(min), toCrypto(window.maxIndex()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return aggregate(RollingWindow.startOf(lastNoOfDays, now, zone), now);
+    }
+
+    public List<Candle> candles(CandleResolution resolution, long from, long to) {
+        lock.readLock().lock();
+        try {
+            return candles.get(resolution).candles(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The tick behind the open, high, low or close of a single candle.
+     */
+    public Optional<Crypto> candleTick(CandleResolution resolution, long bucketStart, CandleSeries.Point point) {
+        lock.readLock().lock();
+        try {
+            CandleSeries candleSeries = candles.get(resolution);
+            long timing = candleSeries.timingOf(bucketStart, point);
+            if (timing == Long.MIN_VALUE) {
+                return Optional.empty();
+            }
+            double price = candleSeries.priceOf(bucketStart, point);
+            int end = upperBound(timing);
+            for (int i = lowerBound(timing); i < end; i++) {
+                if (prices[i] == price) {
+                    return Optional.of(toCrypto(i));
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int insert(Crypto crypto) {
+        ensureCapacity(size + 1);
+        // Appending in timing order is the common case and skips the search
+        int position = size == 0 || timings[size - 1] <= crypto.timing() ? size : upperBound(crypto.timing());
+        if (position < size) {
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(timings, position, timings, position + 1, size - position);
+            System.arraycopy(prices, position, prices, position + 1, size - position);
+            if (recommendations != null) {
+                System.arraycopy(recommendations, position, recommendations, position + 1, size - position);
+            }
+        }
+        ids[position] = crypto.id() == null ? 0L : crypto.id();
+        timings[position] = crypto.timing();
+        prices[position] = crypto.price();
+        if (crypto.recommendation() != null && recommendations == null) {
+            recommendations = new String[ids.length];
+        }
+        if (recommendations != null) {
+            recommendations[position] = crypto.recommendation();
+        }
+        size++;
+        return position;
+    }
+
+    private void aggregateInserted(int position) {
+        SymbolAggregate current = aggregate;
+        if (current == null) {
+            Crypto tick = toCrypto(position);
+            aggregate = new SymbolAggregate(tick, tick, tick, tick);
+            return;
+        }
+        Crypto tick = toCrypto(position);
+        aggregate = new SymbolAggregate(
+                position == 0 ? tick : current.first(),
+                position == size - 1 ? tick : current.last(),
+                tick.price() < current.min().price() ? tick : current.min(),
+                tick.price() > current.max().price() ? tick : current.max());
+    }
+
+    private void aggregateAppended(int from) {
+        aggregate = scanAggregate(from, size, aggregate);
+    }
+
+    // Taken before the removal, while the range index still matches the positions: a removed min or max is
+    // replaced by the lowest or highest price on either side of it in O(log n)
+    private SymbolAggregate aggregateWithout(int position) {
+        if (size == 1) {
+            return null;
+        }
+        SymbolAggregate current = aggregate;
+        Crypto min = current.min();
+        Crypto max = current.max();
+        if (isAt(min, position)) {
+            min = toCrypto(indexedRange().minIndexWithout(position, size, prices));
+        }
+        if (isAt(max, position)) {
+            max = toCrypto(indexedRange().maxIndexWithout(position, size, prices));
+        }
+        return new SymbolAggregate(position == 0 ? toCrypto(1) : current.first(),
+                position == size - 1 ? toCrypto(size - 2) : current.last(), min, max);
+    }
+
+    private boolean isAt(Crypto tick, int position) {
+        return tick.id() == ids[position] && tick.timing() == timings[position];
+    }
+
+    private SymbolAggregate scanAggregate(int from, int to, SymbolAggregate base) {
+        if (from >= to) {
+            return base;
+        }
+        int min = from;
+        int max = from;
+        for (int i = from + 1; i < to; i++) {
+            if (prices[i] < prices[min]) {
+                min = i;
+            }
+            if (prices[i] > prices[max]) {
+                max = i;
+            }
+        }
+        Crypto minTick = toCrypto(min);
+        Crypto maxTick = toCrypto(max);
+        if (base == null) {
+            return new SymbolAggregate(toCrypto(0), toCrypto(size - 1), minTick, maxTick);
+        }
+        return new SymbolAggregate(base.first(), toCrypto(size - 1),
+                minTick.price() < base.min().price() ? minTick : base.min(),
+                maxTick.price() > base.max().price() ? maxTick : base.max());
+    }
+
+    // Called under the read lock
+    private PriceRangeIndex indexedRange() {
+        if (rangeIndex.isStale()) {
+            synchronized (rangeIndex) {
+                if (rangeIndex.isStale()) {
+                    rangeIndex.rebuild(size, prices);
+                }
+            }
+        }
+        return rangeIndex;
+    }
+
+    private RollingWindow windowFor(int days) {
+        for (RollingWindow window : windows) {
+            if (window.getDays() == days) {
+                return window;
+            }
+        }
+        return null;
+    }
+
+    // Readers move the windows under the read lock, so they synchronize on each window among themselves
+    private void indexesAppended(int position) {
+        rangeIndex.appended(position, prices);
+        for (RollingWindow window : windows) {
+            synchronized (window) {
+                window.appended(position, timings, prices);
+            }
+        }
+    }
+
+    private void indexesInvalidated() {
+        rangeIndex.invalidate();
+        windowsInvalidated();
+    }
+
+    private void windowsInvalidated() {
+        for (RollingWindow window : windows) {
+            synchronized (window) {
+                window.invalidate();
+            }
+        }
+    }
+
+    private void candlesAdded(long timing, double price) {
+        for (CandleSeries candleSeries : candles.values()) {
+            candleSeries.add(timing, price);
+        }
+    }
+
+    // Candles cannot un-see a tick, so the bucket it fell into is rebuilt from the remaining ticks
+    private void candlesRemoved(long timing) {
+        candlesRebuilt(List.of(timing));
+    }
+
+    private void candlesRebuilt(List<Long> changedTimings) {
+        for (CandleSeries candleSeries : candles.values()) {
+            Set<Long> starts = new HashSet<>();
+            for (long timing : changedTimings) {
+                starts.add(candleSeries.bucketStart(timing));
+            }
+            for (long start : starts) {
+                candleSeries.rebuildBucket(start, timings, prices,
+                        lowerBound(start), lowerBound(candleSeries.bucketEnd(start)));
+            }
+        }
+    }
+
+    // Backward merge of a batch into the existing columns, O(size + batch) instead of one shift per tick
+    private void merge(List<Crypto> cryptos) {
+        Crypto[] batch = cryptos.toArray(new Crypto[0]);
+        if (!isSorted(cryptos)) {
+            Arrays.sort(batch, (a, b) -> Long.compare(a.timing(), b.timing()));
+        }
+        if (recommendations == null && cryptos.stream().anyMatch(crypto -> crypto.recommendation() != null)) {
+            recommendations = new String[ids.length];
+        }
+        int i = size - 1;
+        int j = batch.length - 1;
+        for (int k = size + batch.length - 1; j >= 0; k--) {
+            if (i >= 0 && timings[i] > batch[j].timing()) {
+                ids[k] = ids[i];
+                timings[k] = timings[i];
+                prices[k] = prices[i];
+                if (recommendations != null) {
+                    recommendations[k] = recommendations[i];
+                }
+                i--;
+            } else {
+                Crypto crypto = batch[j--];
+                ids[k] = crypto.id() == null ? 0L : crypto.id();
+                timings[k] = crypto.timing();
+                prices[k] = crypto.price();
+                if (recommendations != null) {
+                    recommendations[k] = crypto.recommendation();
+                }
+            }
+        }
+        size += batch.length;
+    }
+
+    private static boolean isSorted(List<Crypto> cryptos) {
+        long previous = Long.MIN_VALUE;
+        for (Crypto crypto : cryptos) {
+            if (crypto.timing() < previous) {
+                return false;
+            }
+            previous = crypto.timing();
+        }
+        return true;
+    }
+
+    private int positionOf(Long id, Long timing) {
+        if (id == null || timing == null) {
+            return -1;
+        }
+        int end = upperBound(timing);
+        for (int i = lowerBound(timing); i < end; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Optional<Crypto> removeFirstMatch(long id, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (ids[i] == id) {
+                Crypto removed = toCrypto(i);
+                SymbolAggregate remaining = aggregateWithout(i);
+                removeAt(i);
+                aggregate = remaining;
+                indexesInvalidated();
+                candlesRemoved(removed.timing());
+                return Optional.of(removed);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void removeAt(int position) {
+        int moved = size - position - 1;
+        System.arraycopy(ids, position + 1, ids, position, moved);
+        System.arraycopy(timings, position + 1, timings, position, moved);
+        System.arraycopy(prices, position + 1, prices, position, moved);
+        if (recommendations != null) {
+            System.arraycopy(recommendations, position + 1, recommendations, position, moved);
+            recommendations[size - 1] = null;
+        }
+        size--;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        timings = Arrays.copyOf(timings, newCapacity);
+        prices = Arrays.copyOf(prices, newCapacity);
+        if (recommendations != null) {
+            recommendations = Arrays.copyOf(recommendations, newCapacity);
+        }
+    }
+
+    // First position whose timing is >= the given timing
+    private int lowerBound(long timing) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timings[mid] < timing) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position whose timing is > the given timing
+    private int upperBound(long timing) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timings[mid] <= timing) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private Crypto toCrypto(int position) {
+        return new Crypto(ids[position], timings[position], name, prices[position],
+                recommendations == null ? null : recommendations[position]);
+    }
+
+    public record Columns(long[] ids, long[] timings, double[] prices, String[] recommendations) {
+
+        public int size() {
+            return ids.length;
+        }
+    }
+}
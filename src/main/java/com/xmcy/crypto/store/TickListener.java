@@ -0,0 +1,18 @@
+package com.xmcy.crypto.store;
+
+import com.xmcy.crypto.model.Crypto;
+
+import java.util.List;
+
+/**
+ * Notified by {@link TickStore} after ticks of a symbol were added or removed, outside of any series lock.
+ * Ticks whose price changed in place are reported as added, and a cleared store reports each of its series.
+ */
+public interface TickListener {
+
+    void ticksAdded(String name, List<Crypto> ticks);
+
+    void tickRemoved(Crypto tick);
+
+    void seriesRemoved(String name);
+}
@@ -0,0 +1,141 @@
+package com.xmcy.crypto.store;
+
+import com.xmcy.crypto.model.Crypto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory columnar copy of the CRYPTOS table, one {@link SymbolSeries} per name.
+ * Every write to the table goes through here as well so reads never need a full table load.
+ */
+@Component
+public class TickStore {
+
+    private final Map<String, SymbolSeries> series = new ConcurrentHashMap<>();
+    private final List<TickListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(TickListener listener) {
+        listeners.add(listener);
+    }
+
+    public Optional<SymbolSeries> series(String name) {
+        return Optional.ofNullable(series.get(name));
+    }
+
+    public Collection<SymbolSeries> allSeries() {
+        return series.values();
+    }
+
+    public Optional<Crypto> find(String name, long timing) {
+        return series(name).flatMap(s -> s.at(timing));
+    }
+
+    public Optional<SymbolAggregate> aggregate(String name) {
+        return series(name).map(SymbolSeries::aggregate);
+    }
+
+    public List<SymbolAggregate> aggregates() {
+        List<SymbolAggregate> aggregates = new ArrayList<>(series.size());
+        for (SymbolSeries symbolSeries : series.values()) {
+            SymbolAggregate aggregate = symbolSeries.aggregate();
+            if (aggregate != null) {
+                aggregates.add(aggregate);
+            }
+        }
+        return aggregates;
+    }
+
+    public void add(Crypto crypto) {
+        if (isIndexable(crypto)) {
+            seriesFor(crypto.name()).add(crypto);
+            notifyAdded(crypto.name(), List.of(crypto));
+        }
+    }
+
+    public void addAll(List<Crypto> cryptos) {
+        // Uploads are usually grouped by symbol, so hand each run of equal names over as one batch
+        int runStart = 0;
+        while (runStart < cryptos.size()) {
+            String name = cryptos.get(runStart).name();
+            int runEnd = runStart + 1;
+            while (runEnd < cryptos.size() && Objects.equals(cryptos.get(runEnd).name(), name)) {
+                runEnd++;
+            }
+            List<Crypto> run = cryptos.subList(runStart, runEnd);
+            if (!run.stream().allMatch(TickStore::isIndexable)) {
+                run = run.stream().filter(TickStore::isIndexable).toList();
+            }
+            if (!run.isEmpty()) {
+                seriesFor(name).addAll(run);
+                notifyAdded(name, run);
+            }
+            runStart = runEnd;
+        }
+    }
+
+    /**
+     * Sets the prices of ticks already in the series of that name, keeping their id and timing.
+     */
+    public void updatePrices(String name, List<Crypto> updated) {
+        if (!updated.isEmpty()) {
+            series(name).ifPresent(s -> s.updatePrices(updated));
+            notifyAdded(name, updated);
+        }
+    }
+
+    public void update(Crypto previous, Crypto updated) {
+        remove(previous);
+        add(updated);
+    }
+
+    /**
+     * Removes the tick with the crypto's id from its series, found by name and timing.
+     */
+    public void remove(Crypto crypto) {
+        if (crypto.id() != null && crypto.name() != null && crypto.timing() != null) {
+            series(crypto.name())
+                    .flatMap(s -> s.remove(crypto.id(), crypto.timing()))
+                    .ifPresent(this::notifyRemoved);
+        }
+    }
+
+    /**
+     * Drops every series.
+     */
+    public void clear() {
+        for (String name : List.copyOf(series.keySet())) {
+            series.remove(name);
+            for (TickListener listener : listeners) {
+                listener.seriesRemoved(name);
+            }
+        }
+    }
+
+    private void notifyAdded(String name, List<Crypto> ticks) {
+        for (TickListener listener : listeners) {
+            listener.ticksAdded(name, ticks);
+        }
+    }
+
+    private void notifyRemoved(Crypto tick) {
+        for (TickListener listener : listeners) {
+            listener.tickRemoved(tick);
+        }
+    }
+
+    private SymbolSeries seriesFor(String name) {
+        return series.computeIfAbsent(name, SymbolSeries::new);
+    }
+
+    private static boolean isIndexable(Crypto crypto) {
+        return crypto.name() != null && crypto.timing() != null && crypto.price() != null;
+    }
+}
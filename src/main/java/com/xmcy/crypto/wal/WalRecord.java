@@ -0,0 +1,22 @@
+package com.xmcy.crypto.wal;
+
+import com.xmcy.crypto.model.Crypto;
+
+/**
+ * One change of the CRYPTOS table as written to the {@link WriteAheadLog}: a PUT of the whole row, or a DELETE
+ * of the row with the crypto's id, logged with the row's timing and name so replay finds it without a scan.
+ */
+public record WalRecord(Type type, Crypto crypto) {
+
+    public enum Type {
+        PUT, DELETE
+    }
+
+    public static WalRecord put(Crypto crypto) {
+        return new WalRecord(Type.PUT, crypto);
+    }
+
+    public static WalRecord delete(Crypto crypto) {
+        return new WalRecord(Type.DELETE, new Crypto(crypto.id(), crypto.timing(), crypto.name(), null, null));
+    }
+}
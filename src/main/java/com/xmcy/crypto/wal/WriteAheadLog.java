@@ -0,0 +1,434 @@
+package com.xmcy.crypto.wal;
+
+import com.xmcy.crypto.model.Crypto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of the ticks written through the API, so they survive a restart of the in-memory database.
+ * <p>
+ * {@link #write(List, Runnable)} appends a change and only applies it once it is durable, so neither readers nor
+ * the TickStore listeners see a write that a crash could still take back. Appends only reach the page cache; a
+ * single sync thread forces the file and every writer that appended before the force is released by it, so
+ * concurrent writers share one fsync (group commit). With {@code wal.sync.window} at zero a writer waits for that
+ * fsync before applying. With a window, writers apply right away and the file is forced once per window, so at most
+ * a window of acknowledged writes is lost on a crash.
+ * <p>
+ * A rotation waits for the writers between appending and applying, so every change in a rotated segment has been
+ * applied once {@link #rotate()} returns and a snapshot taken after it covers the segment.
+ * <p>
+ * Each instance writes a new segment. On startup the segments left by earlier runs are replayed after the
+ * snapshot or CSV load, and a snapshot rotates the log and deletes the segments it covers. Replaying a record
+ * twice gives the same table, so a segment may safely overlap a snapshot. Rows without an id, timing, name or
+ * price are not logged, as neither the TickStore nor the snapshots keep them.
+ */
+@Component
+public class WriteAheadLog {
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    static final int MAGIC = 0x5857414C;
+    static final int VERSION = 1;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration syncWindow;
+    private final long firstSegment;
+
+    // Held for reading from append to apply, and for writing by a rotation
+    private final ReentrantReadWriteLock applying = new ReentrantReadWriteLock();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private FileChannel channel;
+    private long segment;
+    private long written;
+    private long durable;
+    private IOException failure;
+    private boolean running;
+    private Thread syncThread;
+
+    public WriteAheadLog(@Value("${wal.enabled}") boolean enabled,
+                         @Value("${wal.dir}") Path directory,
+                         @Value("${wal.sync.window}") Duration syncWindow) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.syncWindow = syncWindow;
+        if (!enabled) {
+            firstSegment = 0;
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            firstSegment = segments().stream().mapToLong(Long::longValue).max().orElse(0) + 1;
+            segment = firstSegment;
+            channel = openSegment(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the write-ahead log in " + directory, e);
+        }
+        running = true;
+        syncThread = new Thread(this::syncLoop, "wal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    /**
+     * Appends the records, waits until they are durable as far as the sync window asks for, then runs apply. If
+     * the append or the fsync fails, apply is not run.
+     */
+    public void write(List<WalRecord> records, Runnable apply) {
+        applying.readLock().lock();
+        try {
+            awaitDurable(append(records));
+            apply.run();
+        } finally {
+            applying.readLock().unlock();
+        }
+    }
+
+    private long append(List<WalRecord> records) {
+        if (!enabled || records.isEmpty()) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(encode(records));
+        lock.lock();
+        try {
+            checkFailure();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            written++;
+            if (syncWindow.isZero()) {
+                pending.signal();
+            }
+            return written;
+        } catch (IOException e) {
+            failure = e;
+            throw new UncheckedIOException("Could not append to the write-ahead log", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        if (!enabled || !syncWindow.isZero() || sequence == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durable < sequence) {
+                checkFailure();
+                synced.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the write-ahead log", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment. Every change in an earlier segment is applied by the time it returns.
+     *
+     * @return the new segment, to pass to {@link #deleteSegmentsBefore(long)} once the data is saved elsewhere
+     */
+    public long rotate() throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+        applying.writeLock().lock();
+        lock.lock();
+        try {
+            checkFailure();
+            channel.force(false);
+            channel.close();
+            segment++;
+            channel = openSegment(segment);
+            durable = written;
+            synced.signalAll();
+            return segment;
+        } finally {
+            lock.unlock();
+            applying.writeLock().unlock();
+        }
+    }
+
+    public void deleteSegmentsBefore(long segment) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        for (long number : segments()) {
+            if (number < segment) {
+                Files.deleteIfExists(segmentPath(number));
+            }
+        }
+    }
+
+    /**
+     * Replays the segments left by earlier runs in order. Consecutive PUTs are handed over in batches of at most
+     * batchSize. A segment ending in a torn or corrupt record, as a crash in the middle of an append leaves it,
+     * is replayed up to that record. Deletes carry the row's id, timing and name.
+     *
+     * @return the number of records replayed
+     */
+    public long replay(int batchSize, Consumer<List<Crypto>> puts, Consumer<Crypto> deletes) throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+        long records = 0;
+        List<Crypto> batch = new ArrayList<>();
+        for (long number : segments()) {
+            if (number >= firstSegment) {
+                continue;
+            }
+            Path file = segmentPath(number);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    logger.warn("Skipping {}, not a write-ahead log segment", file);
+                    continue;
+                }
+                byte[] payload;
+                while ((payload = readRecord(in, file)) != null) {
+                    DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                    WalRecord.Type type = WalRecord.Type.values()[record.readUnsignedByte()];
+                    long id = record.readLong();
+                    if (type == WalRecord.Type.DELETE) {
+                        flush(batch, puts);
+                        long timing = record.readLong();
+                        deletes.accept(new Crypto(id, timing, record.readUTF(), null, null));
+                    } else {
+                        long timing = record.readLong();
+                        double price = record.readDouble();
+                        String name = record.readUTF();
+                        String recommendation = record.readBoolean() ? record.readUTF() : null;
+                        batch.add(new Crypto(id, timing, name, price, recommendation));
+                        if (batch.size() >= batchSize) {
+                            flush(batch, puts);
+                        }
+                    }
+                    records++;
+                }
+            } catch (EOFException e) {
+                logger.warn("Skipping {}, the segment header is incomplete", file);
+            }
+        }
+        flush(batch, puts);
+        if (records > 0) {
+            logger.info("Replayed {} write-ahead log records", records);
+        }
+        return records;
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            running = false;
+            pending.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        syncThread.join();
+        lock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            FileChannel target;
+            long sequence;
+            lock.lock();
+            try {
+                if (syncWindow.isZero()) {
+                    while (running && written == durable) {
+                        pending.await();
+                    }
+                } else {
+                    long nanos = syncWindow.toNanos();
+                    while (running && nanos > 0) {
+                        nanos = pending.awaitNanos(nanos);
+                    }
+                }
+                if (written == durable) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+                target = channel;
+                sequence = written;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                target.force(false);
+            } catch (ClosedChannelException e) {
+                // Rotated meanwhile, rotate forced the segment before closing it
+            } catch (IOException e) {
+                error = e;
+            }
+            lock.lock();
+            try {
+                if (error != null) {
+                    logger.error("Could not sync the write-ahead log", error);
+                    failure = error;
+                } else {
+                    durable = Math.max(durable, sequence);
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void checkFailure() throws UncheckedIOException {
+        if (failure != null) {
+            throw new UncheckedIOException("The write-ahead log failed earlier", failure);
+        }
+    }
+
+    private static byte[] encode(List<WalRecord> records) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(records.size() * 48);
+            DataOutputStream out = new DataOutputStream(bytes);
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+            DataOutputStream record = new DataOutputStream(payload);
+            CRC32C crc = new CRC32C();
+            for (WalRecord walRecord : records) {
+                Crypto crypto = walRecord.crypto();
+                if (crypto.id() == null || crypto.timing() == null || crypto.name() == null
+                        || walRecord.type() == WalRecord.Type.PUT && crypto.price() == null) {
+                    continue;
+                }
+                payload.reset();
+                record.writeByte(walRecord.type().ordinal());
+                record.writeLong(crypto.id());
+                record.writeLong(crypto.timing());
+                if (walRecord.type() == WalRecord.Type.DELETE) {
+                    record.writeUTF(crypto.name());
+                } else {
+                    record.writeDouble(crypto.price());
+                    record.writeUTF(crypto.name());
+                    record.writeBoolean(crypto.recommendation() != null);
+                    if (crypto.recommendation() != null) {
+                        record.writeUTF(crypto.recommendation());
+                    }
+                }
+                crc.reset();
+                crc.update(payload.toByteArray());
+                out.writeInt(payload.size());
+                out.writeInt((int) crc.getValue());
+                payload.writeTo(out);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] readRecord(DataInputStream in, Path file) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        try {
+            int checksum = in.readInt();
+            if (length < 9 || length > MAX_RECORD_BYTES) {
+                logger.warn("Corrupt record in {}, replaying the segment up to it", file);
+                return null;
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                logger.warn("Corrupt record in {}, replaying the segment up to it", file);
+                return null;
+            }
+            return payload;
+        } catch (EOFException e) {
+            logger.warn("Torn record at the end of {}, replaying the segment up to it", file);
+            return null;
+        }
+    }
+
+    private static void flush(List<Crypto> batch, Consumer<List<Crypto>> puts) {
+        if (!batch.isEmpty()) {
+            puts.accept(List.copyOf(batch));
+            batch.clear();
+        }
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        FileChannel segmentChannel = FileChannel.open(segmentPath(number),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            segmentChannel.write(header);
+        }
+        segmentChannel.force(true);
+        return segmentChannel;
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%019d", number) + SEGMENT_SUFFIX);
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))
+                    .filter(number -> number.chars().allMatch(Character::isDigit))
+                    .map(Long::valueOf)
+                    .sorted()
+                    .toList();
+        }
+    }
+}
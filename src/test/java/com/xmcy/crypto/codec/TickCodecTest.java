@@ -0,0 +1,173 @@
+package com.xmcy.crypto.codec;
+
+import com.xmcy.crypto.exception.InvalidCryptoDataException;
+import com.xmcy.crypto.store.SymbolRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TickCodecTest {
+
+    @Test
+    public void testRoundTripOfRandomSeries() throws Exception {
+        Random random = new Random(42);
+        long[] timings = new long[5000];
+        double[] prices = new double[5000];
+        long timing = 1641009600000L;
+        double price = 46813.21;
+        for (int i = 0; i < timings.length; i++) {
+            timing += 3_600_000L + random.nextInt(2000) - 1000;
+            price += random.nextGaussian() * 50;
+            timings[i] = timing;
+            prices[i] = Math.round(price * 100) / 100.0;
+        }
+
+        Map<String, List<long[]>> decoded = roundTrip("Bitcoin", timings, prices, 1024);
+
+        assertArrayEquals(timings, decoded.get("Bitcoin").stream().flatMapToLong(Arrays::stream).toArray());
+    }
+
+    @Test
+    public void testRoundTripOfEdgeValues() throws Exception {
+        long[] timings = {0, 0, 5, 3, Long.MAX_VALUE / 2, -Long.MAX_VALUE / 2, 1, 1 + 64, 1 + 64 + 4096, Long.MIN_VALUE, Long.MAX_VALUE};
+        double[] prices = {0.0, -0.0, Double.NaN, 1.5, 1.5, 1.5, Double.MIN_VALUE, Double.MAX_VALUE,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -1234.5678};
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TickWriter writer = new TickWriter(output, TickWriter.DEFAULT_BLOCK_SIZE);
+        for (int i = 0; i < timings.length; i++) {
+            writer.write("Bitcoin", timings[i], prices[i]);
+        }
+        writer.finish();
+
+        TickReader reader = new TickReader(new ByteArrayInputStream(output.toByteArray()));
+        TickBlock block = reader.next();
+        assertArrayEquals(timings, block.timings());
+        for (int i = 0; i < prices.length; i++) {
+            assertEquals(Double.doubleToRawLongBits(prices[i]), Double.doubleToRawLongBits(block.prices()[i]));
+        }
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testRegularSeriesCompresses() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TickWriter writer = new TickWriter(output, TickWriter.DEFAULT_BLOCK_SIZE);
+        for (int i = 0; i < 1000; i++) {
+            writer.write("Bitcoin", 1641009600000L + i * 3_600_000L, 46813.21);
+        }
+        writer.finish();
+
+        // One bit per timing and one bit per price once the series settles
+        assertTrue(output.size() < 300, "Encoded size was " + output.size());
+    }
+
+    @Test
+    public void testInterleavedSymbolsAreSplitIntoBlocks() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TickWriter writer = new TickWriter(output, 2);
+        writer.write("Bitcoin", 1, 1.0);
+        writer.write("Ethereum", 1, 10.0);
+        writer.write("Bitcoin", 2, 2.0);
+        writer.write("Ethereum", 2, 20.0);
+        writer.write("Bitcoin", 3, 3.0);
+        writer.finish();
+
+        List<TickBlock> blocks = readAll(output.toByteArray());
+
+        assertEquals(List.of("Bitcoin", "Ethereum", "Bitcoin"), blocks.stream().map(TickBlock::name).toList());
+        assertArrayEquals(new long[]{1, 2}, blocks.get(0).timings());
+        assertArrayEquals(new double[]{10.0, 20.0}, blocks.get(1).prices());
+        assertArrayEquals(new long[]{3}, blocks.get(2).timings());
+    }
+
+    @Test
+    public void testEmptyStream() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new TickWriter(output, TickWriter.DEFAULT_BLOCK_SIZE).finish();
+
+        assertTrue(readAll(output.toByteArray()).isEmpty());
+    }
+
+    @Test
+    public void testRejectsMalformedInput() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TickWriter writer = new TickWriter(output, TickWriter.DEFAULT_BLOCK_SIZE);
+        for (int i = 0; i < 100; i++) {
+            writer.write("Bitcoin", i * 1000L, i * 1.5);
+        }
+        writer.finish();
+        byte[] bytes = output.toByteArray();
+
+        assertThrows(InvalidCryptoDataException.class, () -> readAll("timing,symbol,price".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(InvalidCryptoDataException.class, () -> readAll(new byte[0]));
+        assertThrows(InvalidCryptoDataException.class, () -> readAll(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(InvalidCryptoDataException.class, () -> readAll(Arrays.copyOf(bytes, bytes.length / 2)));
+        byte[] badMarker = bytes.clone();
+        badMarker[4] = 7;
+        assertThrows(InvalidCryptoDataException.class, () -> readAll(badMarker));
+        byte[] badCount = bytes.clone();
+        // magic, marker and the name "Bitcoin" written as length-prefixed UTF precede the count
+        badCount[4 + 1 + 2 + 7] = (byte) 0x7F;
+        assertThrows(InvalidCryptoDataException.class, () -> readAll(badCount));
+    }
+
+    @Test
+    public void testConvertsCsv() throws Exception {
+        String csv = "timestamp,symbol,price\n1641009600000,BTC,46813.21\n1641020400000,BTC,46979.61\n1641009600000,ETH,3715.32\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = TickCsvConverter.convert(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), output,
+                new SymbolRegistry(List.of("Bitcoin:BTC", "Ethereum:ETH")));
+
+        assertEquals(3, rows);
+        List<TickBlock> blocks = readAll(output.toByteArray());
+        assertEquals(2, blocks.size());
+        assertArrayEquals(new long[]{1641009600000L, 1641020400000L}, blocks.get(0).timings());
+        assertArrayEquals(new double[]{46813.21, 46979.61}, blocks.get(0).prices());
+        assertArrayEquals(new double[]{3715.32}, blocks.get(1).prices());
+    }
+
+    private static Map<String, List<long[]>> roundTrip(String name, long[] timings, double[] prices, int blockSize) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TickWriter writer = new TickWriter(output, blockSize);
+        for (int i = 0; i < timings.length; i++) {
+            writer.write(name, timings[i], prices[i]);
+        }
+        writer.finish();
+
+        Map<String, List<long[]>> timingsByName = new LinkedHashMap<>();
+        int offset = 0;
+        for (TickBlock block : readAll(output.toByteArray())) {
+            timingsByName.computeIfAbsent(block.name(), key -> new ArrayList<>()).add(block.timings());
+            assertArrayEquals(Arrays.copyOfRange(prices, offset, offset + block.size()), block.prices());
+            offset += block.size();
+        }
+        assertEquals(prices.length, offset);
+        return timingsByName;
+    }
+
+    private static List<TickBlock> readAll(byte[] bytes) throws Exception {
+        TickReader reader = new TickReader(new ByteArrayInputStream(bytes));
+        List<TickBlock> blocks = new ArrayList<>();
+        TickBlock block;
+        while ((block = reader.next()) != null) {
+            blocks.add(block);
+        }
+        return blocks;
+    }
+}
@@ -3,6 +3,7 @@ package com.xmcy.crypto.config;
 import com.xmcy.crypto.helper.CsvDataLoader;
 import com.xmcy.crypto.helper.CsvParser;
 import com.xmcy.crypto.helper.DataInserter;
+import com.xmcy.crypto.snapshot.SnapshotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -11,6 +12,9 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.Executor;
 
 import static org.mockito.Mockito.*;
 
@@ -28,12 +32,16 @@ public class DbConfigTests {
     @Mock
     private CsvDataLoader csvDataLoader;
 
+    @Mock
+    private SnapshotService snapshotService;
+
     @InjectMocks
     private DbConfig dbConfig;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(dbConfig, "startupExecutor", (Executor) Runnable::run);
     }
 
     @Test
@@ -45,5 +53,27 @@ public class DbConfigTests {
         dbConfig.loadCsvData();
 
         verify(resourceResolver, times(1)).getResources("classpath:price/*.csv");
+        verify(csvDataLoader).loadCsvData(eq(resources), any(Runnable.class));
+    }
+
+    @Test
+    public void testRestoredSnapshotSkipsCsvFiles() throws Exception {
+        when(snapshotService.restore()).thenReturn(true);
+
+        dbConfig.loadCsvData();
+
+        verify(resourceResolver, never()).getResources(anyString());
+        verify(csvDataLoader).loadCsvData(eq(new Resource[0]), any(Runnable.class));
+    }
+
+    @Test
+    public void testFailingRestoreFallsBackToCsvFiles() throws Exception {
+        Resource[] resources = new Resource[]{new ClassPathResource("price/BTC_values.csv")};
+        when(snapshotService.restore()).thenThrow(new IllegalStateException("duplicate id"));
+        when(resourceResolver.getResources("classpath:price/*.csv")).thenReturn(resources);
+
+        dbConfig.loadCsvData();
+
+        verify(csvDataLoader).loadCsvData(eq(resources), any(Runnable.class));
     }
 }
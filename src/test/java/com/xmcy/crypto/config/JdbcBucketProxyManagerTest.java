@@ -0,0 +1,84 @@
+package com.xmcy.crypto.config;
+
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Several rate limiter instances, each with its own datasource, sharing buckets through one H2 server.
+ */
+public class JdbcBucketProxyManagerTest {
+
+    private Server server;
+    private String url;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:buckets-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    private RateLimiterFilter instance(DelayParameters syncParameters) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        JdbcBucketProxyManager proxyManager = new JdbcBucketProxyManager(dataSource, syncParameters);
+        proxyManager.createTable();
+        return new RateLimiterFilter(10, 1, "minutes", 100, Map.of(), Optional.of(proxyManager),
+                new SimpleMeterRegistry());
+    }
+
+    private static int allowed(RateLimiterFilter filter, int requests) throws Exception {
+        int allowed = 0;
+        for (int i = 0; i < requests; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/crypto/newest");
+            request.setRemoteAddr("10.0.0.1");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            if (response.getStatus() == 200) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    @Test
+    public void testInstancesShareOneLimit() throws Exception {
+        RateLimiterFilter first = instance(null);
+        RateLimiterFilter second = instance(null);
+        RateLimiterFilter third = instance(null);
+
+        assertEquals(4, allowed(first, 4));
+        assertEquals(4, allowed(second, 4));
+        assertEquals(2, allowed(third, 4));
+        assertEquals(0, allowed(first, 1));
+    }
+
+    @Test
+    public void testDelayedSyncOvershootsByAtMostSyncTokensPerInstance() throws Exception {
+        DelayParameters syncParameters = new DelayParameters(2, Duration.ofMinutes(1));
+        RateLimiterFilter first = instance(syncParameters);
+        RateLimiterFilter second = instance(syncParameters);
+
+        int allowed = allowed(first, 8) + allowed(second, 8) + allowed(first, 8) + allowed(second, 8);
+        assertTrue(allowed >= 10 && allowed <= 10 + 2 * 2, "allowed " + allowed);
+    }
+}
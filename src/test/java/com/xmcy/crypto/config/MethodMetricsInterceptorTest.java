@@ -0,0 +1,57 @@
+package com.xmcy.crypto.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MethodMetricsInterceptorTest {
+
+    private MeterRegistry meterRegistry;
+    private List<String> proxy;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ProxyFactory proxyFactory = new ProxyFactory(new ArrayList<>(List.of("a", "b", "c")));
+        proxyFactory.addInterface(List.class);
+        proxyFactory.addAdvice(new MethodMetricsInterceptor(meterRegistry, "test", "List"));
+        proxy = (List<String>) proxyFactory.getProxy();
+    }
+
+    @Test
+    public void testRecordsTimeAndRows() {
+        proxy.subList(0, 2);
+        proxy.subList(0, 3);
+
+        assertEquals(2, meterRegistry.get("test.invocations")
+                .tags("class", "List", "method", "subList", "exception", "none").timer().count());
+        assertEquals(5, meterRegistry.get("test.result.rows").tag("method", "subList").summary().totalAmount());
+    }
+
+    @Test
+    public void testOnlyCountsRowsOfCollections() {
+        proxy.get(0);
+
+        assertEquals(1, meterRegistry.get("test.invocations").tag("method", "get").timer().count());
+        assertEquals(0, meterRegistry.get("test.result.rows").tag("method", "get").summary().count());
+    }
+
+    @Test
+    public void testTagsFailuresWithException() {
+        assertThrows(IndexOutOfBoundsException.class, () -> proxy.get(5));
+
+        assertEquals(1, meterRegistry.get("test.invocations")
+                .tags("method", "get", "exception", "IndexOutOfBoundsException").timer().count());
+        assertEquals(0, meterRegistry.get("test.invocations")
+                .tags("method", "get", "exception", "none").timer().count());
+    }
+}
@@ -0,0 +1,85 @@
+package com.xmcy.crypto.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RateLimiterFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiterFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Map<String, Integer> costs = new LinkedHashMap<>();
+        costs.put("/api/crypto/batch", 5);
+        costs.put("/api/crypto/normalized-values/**", 2);
+        filter = new RateLimiterFilter(10, 1, "minutes", 3, costs, Optional.empty(), meterRegistry);
+    }
+
+    private int request(String ip, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    public void testRouteCostsDrainTheBucket() throws Exception {
+        assertEquals(5, filter.costOf("/api/crypto/batch"));
+        assertEquals(2, filter.costOf("/api/crypto/normalized-values/BTC"));
+        assertEquals(1, filter.costOf("/api/crypto/newest"));
+
+        assertEquals(200, request("10.0.0.1", "/api/crypto/batch"));
+        assertEquals(200, request("10.0.0.1", "/api/crypto/normalized-values"));
+        assertEquals(200, request("10.0.0.1", "/api/crypto/normalized-values/BTC"));
+        assertEquals(429, request("10.0.0.1", "/api/crypto/batch"));
+        assertEquals(200, request("10.0.0.1", "/api/crypto/newest"));
+        assertEquals(200, request("10.0.0.2", "/api/crypto/batch"));
+
+        assertEquals(5, meterRegistry.get("rate.limiter.requests").tag("result", "allowed").counter().count());
+        assertEquals(1, meterRegistry.get("rate.limiter.requests").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    public void testRejectionCarriesRetryAfter() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            request("10.0.0.1", "/api/crypto/batch");
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/crypto/newest");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+    }
+
+    @Test
+    public void testBucketCountStaysBounded() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            request("10.0.1." + i, "/api/crypto/newest");
+        }
+        assertEquals(3, filter.bucketCount());
+    }
+
+    @Test
+    public void testRejectsCostAboveCapacity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimiterFilter(10, 1, "minutes", 3, Map.of("/api/crypto/export", 11), Optional.empty(),
+                        meterRegistry));
+    }
+}
@@ -1,17 +1,34 @@
 package com.xmcy.crypto.controller;
 
+import com.xmcy.crypto.helper.CryptoExporter;
+import com.xmcy.crypto.model.BatchQuery;
+import com.xmcy.crypto.model.BatchQueryType;
+import com.xmcy.crypto.model.BatchRequest;
+import com.xmcy.crypto.model.BatchResponse;
+import com.xmcy.crypto.model.BatchResult;
+import com.xmcy.crypto.model.CalendarMonth;
+import com.xmcy.crypto.model.Candle;
+import com.xmcy.crypto.model.CandleResolution;
 import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.model.CryptoPage;
+import com.xmcy.crypto.model.PriceRange;
+import com.xmcy.crypto.model.Recommendation;
 import com.xmcy.crypto.model.SortDirection;
+import com.xmcy.crypto.service.BatchQueryService;
 import com.xmcy.crypto.service.CryptoService;
+import com.xmcy.crypto.service.TickStreamService;
+import com.xmcy.crypto.store.SymbolRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -30,6 +47,18 @@ class CryptoControllerTest {
     @Mock
     private CryptoService cryptoService;
 
+    @Mock
+    private CryptoExporter cryptoExporter;
+
+    @Mock
+    private BatchQueryService batchQueryService;
+
+    @Mock
+    private TickStreamService tickStreamService;
+
+    @Spy
+    private SymbolRegistry symbolRegistry = new SymbolRegistry(List.of("Bitcoin:BTC", "Ethereum:ETH"));
+
     @InjectMocks
     private CryptoController cryptoController;
 
@@ -41,12 +70,12 @@ class CryptoControllerTest {
 
     @Test
     void testGetAllCryptos() throws Exception {
-        when(cryptoService.getAllCryptos()).thenReturn(Collections.emptyList());
+        when(cryptoService.getCryptoPage(100, null)).thenReturn(new CryptoPage(Collections.emptyList(), null));
 
         mockMvc.perform(get("/api/crypto"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(jsonPath("$.items").isArray());
     }
 
     @Test
@@ -94,12 +123,17 @@ class CryptoControllerTest {
 
     @Test
     void testGetRecommendations() throws Exception {
-        when(cryptoService.getRecommendations()).thenReturn(Collections.emptyList());
+        when(cryptoService.getRecommendations(Recommendation.BUY)).thenReturn(Collections.emptyList());
+        when(cryptoService.getRecommendations(Recommendation.SELL))
+                .thenReturn(List.of(new Crypto(1L, 1L, "Bitcoin", 50000.0, "Sell")));
 
         mockMvc.perform(get("/api/crypto/recommendations"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$").isArray());
+        mockMvc.perform(get("/api/crypto/recommendations").param("recommendation", "sell"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].recommendation").value("Sell"));
     }
 
     @Test
@@ -275,6 +309,19 @@ class CryptoControllerTest {
                 .andExpect(jsonPath("$.name").value("Bitcoin"));
     }
 
+    @Test
+    void testGetCryptoByNameAndMonthOfYearInZone() throws Exception {
+        Crypto crypto = new Crypto(1L, 1L, "Bitcoin", 50000.0, null);
+        when(cryptoService.getOldestCryptoByNameAndMonth(anyString(), any())).thenReturn(Optional.of(crypto));
+
+        mockMvc.perform(get("/api/crypto/oldest/{name}/{month}", "Bitcoin", 1)
+                        .param("year", "2023")
+                        .param("zone", "Europe/London"))
+                .andExpect(status().isOk());
+
+        verify(cryptoService).getOldestCryptoByNameAndMonth("Bitcoin", CalendarMonth.of(2023, 1, "Europe/London"));
+    }
+
     @Test
     void testGetCryptoWithHighestNormalization() throws Exception {
         Crypto crypto = new Crypto(1L, 1L, "Bitcoin", 50000.0, null);
@@ -328,4 +375,51 @@ class CryptoControllerTest {
 
         verify(cryptoService, times(1)).getCryptoWithMaxValueByNameAndDays(anyString(), anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetCandles() throws Exception {
+        Candle candle = new Candle(1641009600000L, 1.0, 3.0, 0.5, 2.0, 4);
+        when(cryptoService.getCandles(anyString(), any(CandleResolution.class), anyLong(), anyLong())).thenReturn(List.of(candle));
+
+        mockMvc.perform(get("/api/crypto/candles/{name}", "BTC")
+                .param("resolution", "hourly"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].high").value(3.0))
+                .andExpect(jsonPath("$[0].count").value(4));
+
+        verify(cryptoService, times(1)).getCandles("Bitcoin", CandleResolution.HOURLY, 0L, Long.MAX_VALUE);
+    }
+
+    @Test
+    void testBatch() throws Exception {
+        BatchQuery query = new BatchQuery(BatchQueryType.MAX, "BTC", null, null, null, null, null, null);
+        Crypto max = new Crypto(1L, 100L, "Bitcoin", 50000.0, null);
+        when(batchQueryService.execute(any(BatchRequest.class)))
+                .thenReturn(new BatchResponse(List.of(new BatchResult(query, max, null)), List.of()));
+
+        mockMvc.perform(post("/api/crypto/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"queries\":[{\"type\":\"MAX\",\"name\":\"BTC\"}],\"ids\":[]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].query.type").value("MAX"))
+                .andExpect(jsonPath("$.results[0].result.price").value(50000.0));
+
+        verify(batchQueryService).execute(new BatchRequest(List.of(query), List.of()));
+    }
+
+    @Test
+    void testGetPriceRange() throws Exception {
+        Crypto low = new Crypto(1L, 100L, "Bitcoin", 40000.0, null);
+        Crypto high = new Crypto(2L, 200L, "Bitcoin", 50000.0, null);
+        when(cryptoService.getPriceRange("Bitcoin", 100L, 200L))
+                .thenReturn(Optional.of(new PriceRange("Bitcoin", 100L, 200L, low, high, low, high, 0.25)));
+
+        mockMvc.perform(get("/api/crypto/range/{name}", "BTC")
+                .param("from", "100")
+                .param("to", "200"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.max.id").value(2))
+                .andExpect(jsonPath("$.normalizedRange").value(0.25));
+    }
+}
@@ -1,57 +1,151 @@
 package com.xmcy.crypto.controller;
 
+import com.xmcy.crypto.codec.TickWriter;
+import com.xmcy.crypto.helper.BinaryTickParser;
 import com.xmcy.crypto.helper.CsvParser;
 import com.xmcy.crypto.helper.DataInserter;
-import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.model.IngestResult;
+import com.xmcy.crypto.model.UploadJob;
+import com.xmcy.crypto.model.UploadJobStatus;
+import com.xmcy.crypto.service.UploadJobService;
+import com.xmcy.crypto.store.SymbolRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class DataUploadControllerTest {
 
+    private static final List<String> SYMBOLS = List.of("Bitcoin:BTC", "Ethereum:ETH", "Litecoin:LTC");
+
     private MockMvc mockMvc;
 
     @Mock
     private CsvParser csvParser;
 
+    @Mock
+    private BinaryTickParser binaryTickParser;
+
     @Mock
     private DataInserter dataInserter;
 
+    @Mock
+    private UploadJobService uploadJobService;
+
     @InjectMocks
     private DataUploadController dataUploadController;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(dataUploadController, "batchSize", 500);
         mockMvc = MockMvcBuilders.standaloneSetup(dataUploadController).build();
     }
 
     @Test
     public void testUploadCsvData() throws Exception {
         String csvContent = "name,price\nBitcoin,50000\nEthereum,4000";
-        List<Crypto> cryptos = List.of(new Crypto(1L, 1L, "Bitcoin", 50000D, "hold"),
-                new Crypto(2L, 1L, "Bitcoin", 4000D, "hold"));
 
-        when(csvParser.parseCsv(any())).thenReturn(cryptos);
-        doNothing().when(dataInserter).insertData(cryptos);
+        when(csvParser.parseCsv(any(InputStream.class), eq(500), any())).thenReturn(2L);
 
         mockMvc.perform(post("/api/upload/csv")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(csvContent))
                 .andExpect(status().isOk())
-                .andExpect(content().string("CSV data uploaded successfully"));
+                .andExpect(jsonPath("$.inserted").value(0));
+
+        verify(csvParser, times(1)).parseCsv(any(InputStream.class), eq(500), any());
+    }
+
+    @Test
+    public void testUploadCsvDataInsertsEachBatch() throws Exception {
+        DataUploadController controller = new DataUploadController(new CsvParser(new SymbolRegistry(SYMBOLS), new SimpleMeterRegistry()), binaryTickParser, dataInserter, uploadJobService);
+        ReflectionTestUtils.setField(controller, "batchSize", 2);
+        String csvContent = "timing,symbol,price\n1,BTC,1.0\n2,BTC,2.0\n3,ETH,3.0\n";
+        when(dataInserter.insertData(anyList()))
+                .thenReturn(new IngestResult(1, 1, 0))
+                .thenReturn(new IngestResult(0, 0, 1));
+
+        MockMvcBuilders.standaloneSetup(controller).build()
+                .perform(post("/api/upload/csv")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content(csvContent))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.skipped").value(1));
+
+        verify(dataInserter, times(2)).insertData(anyList());
+    }
+
+    @Test
+    public void testUploadBinaryData() throws Exception {
+        DataUploadController controller = new DataUploadController(csvParser, new BinaryTickParser(new SymbolRegistry(SYMBOLS)), dataInserter, uploadJobService);
+        ReflectionTestUtils.setField(controller, "batchSize", 2);
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        TickWriter writer = new TickWriter(binary, TickWriter.DEFAULT_BLOCK_SIZE);
+        writer.write("BTC", 1L, 1.0);
+        writer.write("Ethereum", 1L, 3.0);
+        writer.write("BTC", 2L, 2.0);
+        writer.finish();
+        when(dataInserter.insertData(anyList()))
+                .thenReturn(new IngestResult(2, 0, 0))
+                .thenReturn(new IngestResult(1, 0, 0));
+
+        MockMvcBuilders.standaloneSetup(controller).build()
+                .perform(post("/api/upload/binary")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(binary.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(3));
+
+        verify(dataInserter, times(2)).insertData(anyList());
+    }
+
+    @Test
+    public void testSubmitUploadJob() throws Exception {
+        UploadJob job = new UploadJob("job-1", UploadJobStatus.QUEUED, 0, 0, 0, 0, 0, List.of(), 0, Instant.now(), null, null, null);
+        when(uploadJobService.submit(any(InputStream.class))).thenReturn(job);
+
+        mockMvc.perform(post("/api/upload/jobs")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("timing,symbol,price\n1,BTC,1.0\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/upload/jobs/job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    public void testGetUploadJob() throws Exception {
+        UploadJob job = new UploadJob("job-1", UploadJobStatus.COMPLETED, 2, 1, 2, 0, 0, List.of("3: Invalid CSV line: x"), 100,
+                Instant.now(), Instant.now(), Instant.now(), null);
+        when(uploadJobService.getJob("job-1")).thenReturn(job);
+
+        mockMvc.perform(get("/api/upload/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsProcessed").value(2))
+                .andExpect(jsonPath("$.rowsRejected").value(1));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.xmcy.crypto.helper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xmcy.crypto.codec.TickBlock;
+import com.xmcy.crypto.codec.TickReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CryptoExporterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private CryptoExporter cryptoExporter;
+
+    @BeforeEach
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE cryptos (id BIGINT PRIMARY KEY, timing BIGINT, name VARCHAR(255), price DOUBLE, recommendation VARCHAR(255))");
+        cryptoExporter = new CryptoExporter(jdbcTemplate, new ObjectMapper(), 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testExportAllWritesRowsInTimingOrder() throws Exception {
+        jdbcTemplate.update("INSERT INTO cryptos VALUES (1, 300, 'BTC', 3.0, NULL)");
+        jdbcTemplate.update("INSERT INTO cryptos VALUES (2, 100, 'ETH', 1.0, 'Buy')");
+        jdbcTemplate.update("INSERT INTO cryptos VALUES (3, 200, 'BTC', 2.0, NULL)");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        cryptoExporter.exportAll(output);
+
+        JsonNode json = new ObjectMapper().readTree(output.toByteArray());
+        assertEquals(3, json.size());
+        assertEquals(2L, json.get(0).get("id").asLong());
+        assertEquals("Buy", json.get(0).get("recommendation").asText());
+        assertEquals(3L, json.get(1).get("id").asLong());
+        assertEquals(1L, json.get(2).get("id").asLong());
+        assertTrue(json.get(2).get("recommendation").isNull());
+    }
+
+    @Test
+    public void testExportAllWritesEmptyArray() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        cryptoExporter.exportAll(output);
+
+        assertEquals("[]", output.toString());
+    }
+
+    @Test
+    public void testExportBinaryWritesOneBlockPerSymbol() throws Exception {
+        jdbcTemplate.update("INSERT INTO cryptos VALUES (1, 300, 'Bitcoin', 3.0, NULL)");
+        jdbcTemplate.update("INSERT INTO cryptos VALUES (2, 100, 'Ethereum', 1.0, NULL)");
+        jdbcTemplate.update("INSERT INTO cryptos VALUES (3, 200, 'Bitcoin', 2.0, NULL)");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        cryptoExporter.exportBinary(output);
+
+        TickReader reader = new TickReader(new ByteArrayInputStream(output.toByteArray()));
+        TickBlock bitcoin = reader.next();
+        assertEquals("Bitcoin", bitcoin.name());
+        assertArrayEquals(new long[]{200, 300}, bitcoin.timings());
+        assertArrayEquals(new double[]{2.0, 3.0}, bitcoin.prices());
+        TickBlock ethereum = reader.next();
+        assertEquals("Ethereum", ethereum.name());
+        assertArrayEquals(new long[]{100}, ethereum.timings());
+        assertNull(reader.next());
+    }
+}
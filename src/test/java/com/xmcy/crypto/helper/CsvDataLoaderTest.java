@@ -0,0 +1,74 @@
+package com.xmcy.crypto.helper;
+
+import com.xmcy.crypto.store.SymbolRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class CsvDataLoaderTest {
+
+    private static final List<String> SYMBOLS = List.of("Bitcoin:BTC", "Ethereum:ETH", "Litecoin:LTC");
+
+    @Mock
+    private DataInserter dataInserter;
+
+    private MeterRegistry meterRegistry;
+    private CsvDataLoader csvDataLoader;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        csvDataLoader = new CsvDataLoader(new CsvParser(new SymbolRegistry(SYMBOLS), new SimpleMeterRegistry()), dataInserter, Executors.newFixedThreadPool(2), meterRegistry, 2);
+    }
+
+    @Test
+    public void testLoadCsvDataInParallel() throws Exception {
+        Resource[] resources = {csv("BTC_values.csv", "timing,symbol,price\n1,BTC,1.0\n2,BTC,2.0\n3,BTC,3.0\n"),
+                csv("ETH_values.csv", "timing,symbol,price\n1,ETH,1.0\n")};
+        assertFalse(csvDataLoader.isLoaded());
+
+        CompletableFuture<Void> loading = csvDataLoader.loadCsvData(resources);
+        loading.get(5, TimeUnit.SECONDS);
+
+        assertTrue(csvDataLoader.isLoaded());
+        verify(dataInserter, times(3)).restoreData(anyList());
+        verify(dataInserter, never()).insertData(anyList());
+        assertEquals(1, meterRegistry.get("csv.load.time").tag("file", "BTC_values.csv").timer().count());
+        assertTrue(meterRegistry.get("csv.load.rows.per.second").tag("file", "ETH_values.csv").gauge().value() > 0);
+    }
+
+    @Test
+    public void testFailedFileDoesNotBlockReadiness() throws Exception {
+        Resource[] resources = {csv("BAD_values.csv", "timing,symbol,price\nnot-a-number,BTC,1.0\n")};
+
+        csvDataLoader.loadCsvData(resources).get(5, TimeUnit.SECONDS);
+
+        assertTrue(csvDataLoader.isLoaded());
+        assertEquals(1, csvDataLoader.getFailedFiles().size());
+    }
+
+    private static Resource csv(String filename, String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+}
@@ -1,6 +1,10 @@
 package com.xmcy.crypto.helper;
 
+import com.xmcy.crypto.exception.InvalidCryptoDataException;
 import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.store.SymbolRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -9,18 +13,25 @@ import org.springframework.core.io.Resource;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CsvParserTest {
 
+    private static final List<String> SYMBOLS = List.of("Bitcoin:BTC", "Ethereum:ETH", "Ripple:XRP", "Litecoin:LTC");
+
+    private MeterRegistry meterRegistry;
     private CsvParser csvParser;
     private Resource resource;
 
     @BeforeEach
     public void setUp() {
-        csvParser = new CsvParser();
+        meterRegistry = new SimpleMeterRegistry();
+        csvParser = new CsvParser(new SymbolRegistry(SYMBOLS), meterRegistry);
         resource = Mockito.mock(Resource.class);
     }
 
@@ -51,4 +62,42 @@ public class CsvParserTest {
 
         assertEquals(0, cryptos.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseCsv_streamsFixedSizeBatches() {
+        String csvContent = "timing,symbol,price\n1,BTC,1.0\n2,BTC,2.0\n3,ETH,3.0\n\n4,XRP,0.5\n5,LTC,100\n";
+        List<Integer> batchSizes = new ArrayList<>();
+
+        long rows = csvParser.parseCsv(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)), 2,
+                batch -> batchSizes.add(batch.size()));
+
+        assertEquals(5, rows);
+        assertEquals(List.of(2, 2, 1), batchSizes);
+    }
+
+    @Test
+    public void testParseCsv_withInvalidLine() {
+        String csvContent = "timing,symbol,price\n1,BTC\n";
+
+        assertThrows(InvalidCryptoDataException.class, () -> csvParser.parseCsv(
+                new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)), 10, batch -> { }));
+    }
+
+    @Test
+    public void testParseCsv_skipsRejectedLines() {
+        String csvContent = "timing,symbol,price\n1,BTC,1.0\n2,BTC\nx,ETH,3.0\n4,FOO,1.0\n5,LTC,100\n";
+        List<Crypto> cryptos = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+
+        long rows = csvParser.parseCsv(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)), 10,
+                cryptos::addAll, rejected::add);
+
+        assertEquals(2, rows);
+        assertEquals(2, cryptos.size());
+        assertEquals(3, rejected.size());
+        assertEquals("3: Invalid CSV line: 2,BTC", rejected.get(0));
+        assertTrue(rejected.get(2).startsWith("5: "));
+        assertEquals(2, meterRegistry.get("csv.parser.rows").tag("result", "parsed").counter().count());
+        assertEquals(3, meterRegistry.get("csv.parser.rows").tag("result", "rejected").counter().count());
+    }
+}
@@ -0,0 +1,197 @@
+package com.xmcy.crypto.helper;
+
+import com.xmcy.crypto.exception.CryptoAlreadyExistsException;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.model.IngestResult;
+import com.xmcy.crypto.store.TickStore;
+import com.xmcy.crypto.wal.WalRecord;
+import com.xmcy.crypto.wal.WriteAheadLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class DataInserterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TickStore tickStore;
+    private WriteAheadLog writeAheadLog;
+    private MeterRegistry meterRegistry;
+    private DataInserter dataInserter;
+
+    @BeforeEach
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE cryptos (id BIGINT PRIMARY KEY, timing BIGINT, name VARCHAR(255), price DOUBLE, recommendation VARCHAR(255))");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX uk_cryptos_timing_name ON cryptos (timing, name)");
+        tickStore = new TickStore();
+        writeAheadLog = spy(new WriteAheadLog(false, null, Duration.ZERO));
+        meterRegistry = new SimpleMeterRegistry();
+        dataInserter = new DataInserter(new NamedParameterJdbcTemplate(jdbcTemplate), tickStore, writeAheadLog,
+                meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testReuploadIsIdempotent() {
+        List<Crypto> upload = List.of(
+                new Crypto(1L, 100L, "Bitcoin", 1.0, null),
+                new Crypto(2L, 200L, "Bitcoin", 2.0, null),
+                new Crypto(3L, 100L, "Ethereum", 3.0, null));
+
+        assertEquals(new IngestResult(3, 0, 0), dataInserter.insertData(upload));
+        List<Crypto> again = List.of(
+                new Crypto(11L, 100L, "Bitcoin", 1.0, null),
+                new Crypto(12L, 200L, "Bitcoin", 2.0, null),
+                new Crypto(13L, 100L, "Ethereum", 3.0, null));
+        assertEquals(new IngestResult(0, 0, 3), dataInserter.insertData(again));
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cryptos", Integer.class));
+        assertEquals(2, tickStore.series("Bitcoin").orElseThrow().size());
+    }
+
+    @Test
+    public void testChangedPriceUpdatesStoredRow() {
+        dataInserter.insertData(List.of(new Crypto(1L, 100L, "Bitcoin", 1.0, null)));
+
+        IngestResult result = dataInserter.insertData(List.of(
+                new Crypto(7L, 100L, "Bitcoin", 5.0, null),
+                new Crypto(8L, 300L, "Bitcoin", 3.0, null),
+                new Crypto(9L, 300L, "Bitcoin", 4.0, null)));
+
+        assertEquals(new IngestResult(1, 1, 1), result);
+        assertEquals(5.0, jdbcTemplate.queryForObject("SELECT price FROM cryptos WHERE id = 1", Double.class));
+        assertEquals(4.0, jdbcTemplate.queryForObject("SELECT price FROM cryptos WHERE timing = 300", Double.class));
+        assertEquals(5.0, tickStore.find("Bitcoin", 100L).orElseThrow().price());
+        assertEquals(1L, tickStore.find("Bitcoin", 100L).orElseThrow().id());
+        assertEquals(2, tickStore.series("Bitcoin").orElseThrow().size());
+    }
+
+    @Test
+    public void testOnlyChangedRowsAreLogged() {
+        dataInserter.restoreData(List.of(new Crypto(1L, 100L, "Bitcoin", 1.0, null)));
+        verify(writeAheadLog, never()).write(anyList(), any(Runnable.class));
+
+        dataInserter.insertData(List.of(
+                new Crypto(7L, 100L, "Bitcoin", 1.0, null),
+                new Crypto(8L, 200L, "Bitcoin", 2.0, null)));
+
+        verify(writeAheadLog).write(eq(List.of(WalRecord.put(new Crypto(8L, 200L, "Bitcoin", 2.0, null)))),
+                any(Runnable.class));
+    }
+
+    @Test
+    public void testNothingIsAppliedWhenLoggingFails() {
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(writeAheadLog).write(anyList(), any(Runnable.class));
+
+        assertThrows(UncheckedIOException.class,
+                () -> dataInserter.insertData(List.of(new Crypto(1L, 100L, "Bitcoin", 1.0, null))));
+        assertThrows(UncheckedIOException.class,
+                () -> dataInserter.addData(new Crypto(2L, 200L, "Bitcoin", 2.0, null)));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cryptos", Integer.class));
+        assertTrue(tickStore.series("Bitcoin").isEmpty());
+    }
+
+    @Test
+    public void testAddAndUpdateData() {
+        Crypto added = dataInserter.addData(new Crypto(null, 100L, "Bitcoin", 1.0, "Buy"));
+        assertThrows(CryptoAlreadyExistsException.class,
+                () -> dataInserter.addData(new Crypto(null, 100L, "Bitcoin", 2.0, null)));
+
+        Crypto updated = new Crypto(added.id(), 100L, "Ethereum", 3.0, null);
+        dataInserter.updateData(added, updated);
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cryptos WHERE name = 'Ethereum'", Integer.class));
+        assertEquals(0, tickStore.series("Bitcoin").orElseThrow().size());
+        assertEquals(updated, tickStore.find("Ethereum", 100L).orElseThrow());
+        verify(writeAheadLog).write(eq(List.of(WalRecord.delete(added), WalRecord.put(updated))), any(Runnable.class));
+    }
+
+    @Test
+    public void testDeleteData() {
+        dataInserter.restoreData(List.of(new Crypto(1L, 100L, "Bitcoin", 1.0, null)));
+
+        dataInserter.deleteData(new Crypto(1L, 100L, "Bitcoin", null, null));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cryptos", Integer.class));
+        assertEquals(0, tickStore.series("Bitcoin").orElseThrow().size());
+    }
+
+    @Test
+    public void testReplaysLoggedUpdateAndDeleteOverFreshCsvLoad(@TempDir Path directory) throws Exception {
+        WriteAheadLog firstRun = new WriteAheadLog(true, directory, Duration.ZERO);
+        DataInserter inserter = new DataInserter(new NamedParameterJdbcTemplate(jdbcTemplate), tickStore, firstRun,
+                meterRegistry);
+        List<Crypto> csv = List.of(
+                new Crypto(1L, 100L, "Bitcoin", 1.0, null),
+                new Crypto(2L, 200L, "Bitcoin", 2.0, null),
+                new Crypto(3L, 300L, "Bitcoin", 3.0, null));
+        inserter.restoreData(csv);
+        inserter.updateData(csv.get(0), new Crypto(1L, 150L, "Bitcoin", 1.5, null));
+        inserter.deleteData(csv.get(1));
+        firstRun.close();
+
+        // The next start loads the CSV files again, with new ids
+        tearDown();
+        setUp();
+        WriteAheadLog secondRun = new WriteAheadLog(true, directory, Duration.ZERO);
+        dataInserter.restoreData(List.of(
+                new Crypto(11L, 100L, "Bitcoin", 1.0, null),
+                new Crypto(12L, 200L, "Bitcoin", 2.0, null),
+                new Crypto(13L, 300L, "Bitcoin", 3.0, null)));
+        secondRun.replay(10, dataInserter::restoreData, dataInserter::restoreDelete);
+        secondRun.close();
+
+        assertEquals(List.of(150L, 300L),
+                jdbcTemplate.queryForList("SELECT timing FROM cryptos ORDER BY timing", Long.class));
+        assertEquals(2, tickStore.series("Bitcoin").orElseThrow().size());
+        assertTrue(tickStore.find("Bitcoin", 100L).isEmpty());
+        assertTrue(tickStore.find("Bitcoin", 200L).isEmpty());
+        assertEquals(1.5, tickStore.find("Bitcoin", 150L).orElseThrow().price());
+    }
+
+    @Test
+    public void testRecordsIngestMetrics() {
+        dataInserter.restoreData(List.of(new Crypto(1L, 100L, "Bitcoin", 1.0, null)));
+        dataInserter.insertData(List.of(
+                new Crypto(7L, 100L, "Bitcoin", 1.0, null),
+                new Crypto(8L, 200L, "Bitcoin", 2.0, null),
+                new Crypto(9L, 100L, "Ethereum", 3.0, null)));
+
+        assertEquals(1, meterRegistry.get("ingest.rows").tags("source", "restore", "result", "inserted").counter().count());
+        assertEquals(2, meterRegistry.get("ingest.rows").tags("source", "api", "result", "inserted").counter().count());
+        assertEquals(1, meterRegistry.get("ingest.rows").tags("source", "api", "result", "skipped").counter().count());
+        assertEquals(3, meterRegistry.get("ingest.batch.size").tag("source", "api").summary().max());
+    }
+}
@@ -0,0 +1,68 @@
+package com.xmcy.crypto.model;
+
+import com.xmcy.crypto.exception.MonthNotSupportedException;
+import com.xmcy.crypto.exception.ZoneNotSupportedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CalendarMonthTest {
+
+    @Test
+    public void testBoundariesMatchCalendar() {
+        ZoneId zone = ZoneId.of("Europe/London");
+        for (int year : new int[]{1969, 1970, 2024, 2100, 2101}) {
+            for (int month = 1; month <= 12; month++) {
+                long start = LocalDate.of(year, month, 1).atStartOfDay(zone).toInstant().toEpochMilli();
+                long end = LocalDate.of(year, month, 1).plusMonths(1).atStartOfDay(zone).toInstant().toEpochMilli();
+                CalendarMonth calendarMonth = CalendarMonth.of(year, month, "Europe/London");
+
+                assertEquals(start, calendarMonth.start());
+                assertEquals(end, calendarMonth.end());
+                assertEquals(start, CalendarBuckets.monthStartOf(start, zone));
+                assertEquals(start, CalendarBuckets.monthStartOf(end - 1, zone));
+            }
+        }
+    }
+
+    @Test
+    public void testMonthlyCandlesUseBoundaries() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        long timing = ZonedDateTime.of(2021, 3, 14, 12, 0, 0, 0, zone).toInstant().toEpochMilli();
+
+        long start = CandleResolution.MONTHLY.bucketStart(timing, zone);
+
+        assertEquals(CalendarMonth.of(2021, 3, "America/New_York").start(), start);
+        assertEquals(CalendarMonth.of(2021, 4, "America/New_York").start(), CandleResolution.MONTHLY.nextBucketStart(start, zone));
+    }
+
+    @Test
+    public void testDefaults() {
+        CalendarMonth month = CalendarMonth.of(null, 5, null);
+
+        assertEquals(Year.now().getValue(), month.year());
+        assertEquals(Months.MAY, month.month());
+        assertEquals(ZoneId.systemDefault().normalized(), month.zone());
+    }
+
+    @Test
+    public void testRejectsInvalidParameters() {
+        assertThrows(MonthNotSupportedException.class, () -> CalendarMonth.of(2024, 13, null));
+        assertThrows(MonthNotSupportedException.class, () -> CalendarMonth.of(0, 1, null));
+        assertThrows(ZoneNotSupportedException.class, () -> CalendarMonth.of(2024, 1, "Mars/Olympus"));
+        assertThrows(ZoneNotSupportedException.class, () -> CalendarMonth.of(2024, 1, "+01:00:30"));
+    }
+
+    @Test
+    public void testFixedOffsetZonesAreNormalized() {
+        assertEquals(ZoneOffset.ofHours(1), CalendarMonth.of(2024, 1, "UTC+01:00").zone());
+        assertEquals(CalendarMonth.of(2024, 1, "+01:00"), CalendarMonth.of(2024, 1, "GMT+1"));
+    }
+}
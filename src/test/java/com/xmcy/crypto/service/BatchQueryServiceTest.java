@@ -0,0 +1,79 @@
+package com.xmcy.crypto.service;
+
+import com.xmcy.crypto.exception.InvalidCryptoDataException;
+import com.xmcy.crypto.model.BatchQuery;
+import com.xmcy.crypto.model.BatchQueryType;
+import com.xmcy.crypto.model.BatchRequest;
+import com.xmcy.crypto.model.BatchResponse;
+import com.xmcy.crypto.model.CalendarMonth;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.store.SymbolRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BatchQueryServiceTest {
+
+    @Mock
+    private CryptoService cryptoService;
+
+    private BatchQueryService batchQueryService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        batchQueryService = new BatchQueryService(cryptoService, new SymbolRegistry(List.of("Bitcoin:BTC")),
+                Executors.newFixedThreadPool(2), 5);
+    }
+
+    @Test
+    void testExecuteRunsSameQueryOnce() {
+        Crypto max = new Crypto(1L, 100L, "Bitcoin", 50000.0, null);
+        when(cryptoService.getCryptoWithMaxValueByName("Bitcoin")).thenReturn(Optional.of(max));
+        when(cryptoService.getCryptosByIds(List.of(7L))).thenReturn(List.of(new Crypto(7L, 1L, "Ethereum", 1.0, null)));
+
+        BatchResponse response = batchQueryService.execute(new BatchRequest(List.of(
+                new BatchQuery(BatchQueryType.MAX, "BTC", null, null, null, null, null, null),
+                new BatchQuery(BatchQueryType.MAX, "bitcoin", null, null, null, null, null, null)), List.of(7L)));
+
+        assertEquals(2, response.results().size());
+        assertEquals(max, response.results().get(0).result());
+        assertEquals(max, response.results().get(1).result());
+        assertEquals("BTC", response.results().get(0).query().name());
+        assertEquals(7L, response.cryptos().get(0).id());
+        verify(cryptoService, times(1)).getCryptoWithMaxValueByName("Bitcoin");
+    }
+
+    @Test
+    void testExecuteReportsErrorsPerQuery() {
+        when(cryptoService.getOldestCryptoByNameAndMonth("Bitcoin", CalendarMonth.of(null, 3, null))).thenReturn(Optional.empty());
+
+        BatchResponse response = batchQueryService.execute(new BatchRequest(List.of(
+                new BatchQuery(BatchQueryType.OLDEST_BY_MONTH, "BTC", 3, null, null, null, null, null),
+                new BatchQuery(BatchQueryType.MIN_BY_MONTH, "BTC", null, null, null, null, null, null),
+                new BatchQuery(BatchQueryType.MIN, "NOPE", null, null, null, null, null, null)), null));
+
+        assertTrue(response.results().get(0).error().startsWith("No data found"));
+        assertEquals("month is required", response.results().get(1).error());
+        assertNotNull(response.results().get(2).error());
+        assertTrue(response.cryptos().isEmpty());
+        verify(cryptoService, never()).getCryptosByIds(any());
+    }
+
+    @Test
+    void testExecuteRejectsOversizedBatch() {
+        BatchRequest request = new BatchRequest(
+                Collections.nCopies(3, new BatchQuery(BatchQueryType.MIN, "BTC", null, null, null, null, null, null)), List.of(1L, 2L, 3L));
+
+        assertThrows(InvalidCryptoDataException.class, () -> batchQueryService.execute(request));
+    }
+}
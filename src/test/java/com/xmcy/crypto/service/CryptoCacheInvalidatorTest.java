@@ -0,0 +1,76 @@
+package com.xmcy.crypto.service;
+
+import com.xmcy.crypto.config.CacheConfig;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.model.Months;
+import com.xmcy.crypto.store.TickStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CryptoCacheInvalidatorTest {
+
+    private TickStore tickStore;
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment();
+        for (String name : List.of(CacheConfig.NORMALIZED_VALUES, CacheConfig.NORMALIZED_VALUES_BY_NAME,
+                CacheConfig.MONTHLY_TICKS, CacheConfig.HIGHEST_NORMALIZATION_BY_DATE)) {
+            environment.setProperty("cache." + name + ".spec", "maximumSize=100");
+        }
+        cacheManager = new CacheConfig().cacheManager(environment);
+        tickStore = new TickStore();
+        new CryptoCacheInvalidator(cacheManager, tickStore).register();
+    }
+
+    @Test
+    public void testWriteEvictsOnlyAffectedSymbolAndDate() {
+        LocalDate day = LocalDate.of(2022, 1, 1);
+        long timing = day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String otherDay = day.plusDays(1).format(CryptoService.DATE_FORMAT);
+        cache(CacheConfig.NORMALIZED_VALUES).put(CryptoService.ALL_SYMBOLS_KEY, Map.of());
+        cache(CacheConfig.NORMALIZED_VALUES_BY_NAME).put("BTC", Map.of());
+        cache(CacheConfig.NORMALIZED_VALUES_BY_NAME).put("ETH", Map.of());
+        cache(CacheConfig.MONTHLY_TICKS).put(List.of("BTC", Months.JANUARY, "HIGH"), Optional.empty());
+        cache(CacheConfig.MONTHLY_TICKS).put(List.of("ETH", Months.JANUARY, "HIGH"), Optional.empty());
+        cache(CacheConfig.HIGHEST_NORMALIZATION_BY_DATE).put(day.format(CryptoService.DATE_FORMAT), Optional.empty());
+        cache(CacheConfig.HIGHEST_NORMALIZATION_BY_DATE).put(otherDay, Optional.empty());
+
+        tickStore.addAll(List.of(new Crypto(1L, timing + 1000, "BTC", 1.0, null)));
+
+        assertNull(cache(CacheConfig.NORMALIZED_VALUES).get(CryptoService.ALL_SYMBOLS_KEY));
+        assertNull(cache(CacheConfig.NORMALIZED_VALUES_BY_NAME).get("BTC"));
+        assertNotNull(cache(CacheConfig.NORMALIZED_VALUES_BY_NAME).get("ETH"));
+        assertNull(cache(CacheConfig.MONTHLY_TICKS).get(List.of("BTC", Months.JANUARY, "HIGH")));
+        assertNotNull(cache(CacheConfig.MONTHLY_TICKS).get(List.of("ETH", Months.JANUARY, "HIGH")));
+        assertNull(cache(CacheConfig.HIGHEST_NORMALIZATION_BY_DATE).get(day.format(CryptoService.DATE_FORMAT)));
+        assertNotNull(cache(CacheConfig.HIGHEST_NORMALIZATION_BY_DATE).get(otherDay));
+    }
+
+    @Test
+    public void testRemovalEvictsSymbol() {
+        tickStore.add(new Crypto(1L, 1000L, "BTC", 1.0, null));
+        cache(CacheConfig.NORMALIZED_VALUES_BY_NAME).put("BTC", Map.of());
+
+        tickStore.remove(new Crypto(1L, 1000L, "BTC", 1.0, null));
+
+        assertNull(cache(CacheConfig.NORMALIZED_VALUES_BY_NAME).get("BTC"));
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+}
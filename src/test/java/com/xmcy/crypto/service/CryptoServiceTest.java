@@ -1,15 +1,31 @@
 package com.xmcy.crypto.service;
 
+import com.xmcy.crypto.exception.CryptoAlreadyExistsException;
 import com.xmcy.crypto.exception.CryptoNotFoundException;
 import com.xmcy.crypto.exception.InvalidCryptoDataException;
+import com.xmcy.crypto.helper.DataInserter;
+import com.xmcy.crypto.model.CalendarMonth;
 import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.model.CryptoPage;
+import com.xmcy.crypto.model.PriceRange;
+import com.xmcy.crypto.model.Recommendation;
+import com.xmcy.crypto.model.RecommendationSignal;
 import com.xmcy.crypto.model.SortDirection;
 import com.xmcy.crypto.repository.CryptoRepository;
+import com.xmcy.crypto.store.TickStore;
+import com.xmcy.crypto.wal.WalRecord;
+import com.xmcy.crypto.wal.WriteAheadLog;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,23 +38,56 @@ class CryptoServiceTest {
     @Mock
     private CryptoRepository cryptoRepository;
 
-    @InjectMocks
+    @Spy
+    private TickStore tickStore = new TickStore();
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Mock
+    private WriteAheadLog writeAheadLog;
+
+    @Mock
+    private RecommendationEngine recommendationEngine;
+
     private CryptoService cryptoService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(writeAheadLog).write(anyList(), any(Runnable.class));
+        DataInserter dataInserter = new DataInserter(namedParameterJdbcTemplate, tickStore, writeAheadLog,
+                new SimpleMeterRegistry());
+        cryptoService = new CryptoService(cryptoRepository, tickStore, dataInserter, recommendationEngine);
     }
 
     @Test
-    void testGetAllCryptos() {
-        List<Crypto> cryptos = List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"));
-        when(cryptoRepository.findAll()).thenReturn(cryptos);
+    void testGetCryptoPage() {
+        List<Crypto> cryptos = List.of(
+                new Crypto(1L, 100L, "Bitcoin", 50000.0, "Buy"),
+                new Crypto(2L, 200L, "Bitcoin", 51000.0, "Buy"),
+                new Crypto(3L, 300L, "Bitcoin", 52000.0, "Buy"));
+        when(cryptoRepository.findAllByOrderByTimingAscIdAsc(PageRequest.of(0, 3))).thenReturn(cryptos);
 
-        List<Crypto> result = cryptoService.getAllCryptos();
+        CryptoPage page = cryptoService.getCryptoPage(2, null);
 
-        assertEquals(1, result.size());
-        assertEquals("Bitcoin", result.get(0).name());
+        assertEquals(2, page.items().size());
+        assertNotNull(page.nextCursor());
+
+        when(cryptoRepository.findAllAfter(200L, 2L, PageRequest.of(0, 3))).thenReturn(List.of(cryptos.get(2)));
+
+        CryptoPage nextPage = cryptoService.getCryptoPage(2, page.nextCursor());
+
+        assertEquals(List.of(cryptos.get(2)), nextPage.items());
+        assertNull(nextPage.nextCursor());
+    }
+
+    @Test
+    void testGetCryptoPageInvalidCursor() {
+        assertThrows(InvalidCryptoDataException.class, () -> cryptoService.getCryptoPage(10, "not-a-cursor"));
     }
 
     @Test
@@ -62,11 +111,22 @@ class CryptoServiceTest {
     @Test
     void testAddCrypto() {
         Crypto crypto = new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy");
-        when(cryptoRepository.save(any(Crypto.class))).thenReturn(crypto);
 
         Crypto result = cryptoService.addCrypto(crypto);
 
-        assertEquals("Bitcoin", result.name());
+        assertEquals(crypto, result);
+        verify(writeAheadLog).write(eq(List.of(WalRecord.put(crypto))), any(Runnable.class));
+        assertEquals(crypto, tickStore.find("Bitcoin", 123456789L).orElseThrow());
+    }
+
+    @Test
+    void testAddExistingCryptoConflicts() {
+        tickStore.add(new Crypto(1L, 123456789L, "Bitcoin", 40000.0, null));
+        Crypto crypto = new Crypto(null, 123456789L, "Bitcoin", 50000.0, null);
+
+        assertThrows(CryptoAlreadyExistsException.class, () -> cryptoService.addCrypto(crypto));
+        assertEquals(40000.0, tickStore.find("Bitcoin", 123456789L).orElseThrow().price());
+        verify(writeAheadLog, never()).write(anyList(), any(Runnable.class));
     }
 
     @Test
@@ -80,12 +140,27 @@ class CryptoServiceTest {
     void testUpdateCrypto() {
         Crypto existingCrypto = new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy");
         Crypto updatedCrypto = new Crypto(1L, 123456789L, "Ethereum", 3000.0, "Sell");
+        tickStore.add(existingCrypto);
         when(cryptoRepository.findById(1L)).thenReturn(Optional.of(existingCrypto));
-        when(cryptoRepository.save(any(Crypto.class))).thenReturn(updatedCrypto);
 
         Crypto result = cryptoService.updateCrypto(1L, updatedCrypto);
 
-        assertEquals("Ethereum", result.name());
+        assertEquals(updatedCrypto, result);
+        verify(writeAheadLog).write(eq(List.of(WalRecord.delete(existingCrypto), WalRecord.put(updatedCrypto))),
+                any(Runnable.class));
+        assertEquals(0, tickStore.series("Bitcoin").orElseThrow().size());
+        assertEquals(updatedCrypto, tickStore.find("Ethereum", 123456789L).orElseThrow());
+    }
+
+    @Test
+    void testUpdateCryptoOntoExistingKeyConflicts() {
+        Crypto existingCrypto = new Crypto(1L, 100L, "Bitcoin", 50000.0, null);
+        tickStore.addAll(List.of(existingCrypto, new Crypto(2L, 200L, "Bitcoin", 40000.0, null)));
+        when(cryptoRepository.findById(1L)).thenReturn(Optional.of(existingCrypto));
+
+        assertThrows(CryptoAlreadyExistsException.class,
+                () -> cryptoService.updateCrypto(1L, new Crypto(1L, 200L, "Bitcoin", 45000.0, null)));
+        assertEquals(2, tickStore.series("Bitcoin").orElseThrow().size());
     }
 
     @Test
@@ -98,100 +173,119 @@ class CryptoServiceTest {
 
     @Test
     void testDeleteCrypto() {
-        when(cryptoRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(cryptoRepository).deleteById(1L);
+        Crypto existingCrypto = new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy");
+        when(cryptoRepository.findById(1L)).thenReturn(Optional.of(existingCrypto));
 
         assertDoesNotThrow(() -> cryptoService.deleteCrypto(1L));
+        verify(writeAheadLog).write(eq(List.of(WalRecord.delete(existingCrypto))), any(Runnable.class));
     }
 
     @Test
     void testDeleteCryptoNotFound() {
-        when(cryptoRepository.existsById(1L)).thenReturn(false);
+        when(cryptoRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(CryptoNotFoundException.class, () -> cryptoService.deleteCrypto(1L));
     }
 
     @Test
     void testGetRecommendations() {
-        List<Crypto> cryptos = List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"));
-        when(cryptoRepository.findAll()).thenReturn(cryptos);
+        Crypto latest = new Crypto(1L, 123456789L, "Bitcoin", 50000.0, null);
+        when(recommendationEngine.signals(Recommendation.BUY))
+                .thenReturn(List.of(new RecommendationSignal("Bitcoin", Recommendation.BUY, 0.2, 0.1, 0.5, latest)));
 
-        List<Crypto> result = cryptoService.getRecommendations();
+        List<Crypto> result = cryptoService.getRecommendations(Recommendation.BUY);
 
         assertEquals(1, result.size());
         assertEquals("Bitcoin", result.get(0).name());
+        assertEquals("Buy", result.get(0).recommendation());
+        verify(cryptoRepository, never()).findAll();
     }
 
     @Test
     void testGetCryptoWithMinValueByName() {
-        Crypto crypto = new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy");
-        when(cryptoRepository.findTopByNameOrderByPriceAsc("Bitcoin")).thenReturn(Optional.of(crypto));
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
+                new Crypto(2L, 123456790L, "Bitcoin", 40000.0, "Buy")));
 
         Optional<Crypto> result = cryptoService.getCryptoWithMinValueByName("Bitcoin");
 
         assertTrue(result.isPresent());
-        assertEquals("Bitcoin", result.get().name());
+        assertEquals(2L, result.get().id());
+        assertTrue(cryptoService.getCryptoWithMinValueByName("Ethereum").isEmpty());
     }
 
     @Test
     void testGetCryptoWithMaxValueByName() {
-        Crypto crypto = new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy");
-        when(cryptoRepository.findTopByNameOrderByPriceDesc("Bitcoin")).thenReturn(Optional.of(crypto));
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
+                new Crypto(2L, 123456790L, "Bitcoin", 40000.0, "Buy")));
 
         Optional<Crypto> result = cryptoService.getCryptoWithMaxValueByName("Bitcoin");
 
         assertTrue(result.isPresent());
-        assertEquals("Bitcoin", result.get().name());
+        assertEquals(1L, result.get().id());
     }
 
     @Test
     void testGetAllMaxValuesGroupedByName() {
-        List<Crypto> cryptos = List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"));
-        when(cryptoRepository.findAllMaxValuesGroupedByName()).thenReturn(cryptos);
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
+                new Crypto(2L, 123456790L, "Bitcoin", 40000.0, "Buy")));
 
         List<Crypto> result = cryptoService.getAllMaxValuesGroupedByName();
 
         assertEquals(1, result.size());
         assertEquals("Bitcoin", result.get(0).name());
+        assertEquals(50000.0, result.get(0).price());
     }
 
     @Test
     void testGetAllMinValuesGroupedByName() {
-        List<Crypto> cryptos = List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"));
-        when(cryptoRepository.findAllMinValuesGroupedByName()).thenReturn(cryptos);
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
+                new Crypto(2L, 123456790L, "Bitcoin", 40000.0, "Buy")));
 
         List<Crypto> result = cryptoService.getAllMinValuesGroupedByName();
 
         assertEquals(1, result.size());
-        assertEquals("Bitcoin", result.get(0).name());
+        assertEquals(40000.0, result.get(0).price());
+    }
+
+    @Test
+    void testMinAndMaxAfterDeletingExtreme() {
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, null),
+                new Crypto(2L, 123456790L, "Bitcoin", 40000.0, null),
+                new Crypto(3L, 123456791L, "Bitcoin", 45000.0, null)));
+        when(cryptoRepository.findById(1L)).thenReturn(Optional.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, null)));
+
+        cryptoService.deleteCrypto(1L);
+
+        assertEquals(3L, cryptoService.getCryptoWithMaxValueByName("Bitcoin").get().id());
+        assertEquals(2L, cryptoService.getOldestCryptoByName("Bitcoin").get().id());
     }
 
     @Test
     void testGetOldestCryptoByName() {
-        Crypto crypto = new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy");
-        when(cryptoRepository.findTopByNameOrderByTimingAsc("Bitcoin")).thenReturn(Optional.of(crypto));
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
+                new Crypto(2L, 123456790L, "Bitcoin", 40000.0, "Buy")));
 
         Optional<Crypto> result = cryptoService.getOldestCryptoByName("Bitcoin");
 
         assertTrue(result.isPresent());
-        assertEquals("Bitcoin", result.get().name());
+        assertEquals(1L, result.get().id());
     }
 
     @Test
     void testGetOldestCrypto() {
-        Crypto crypto = new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy");
-        when(cryptoRepository.findTopByOrderByTimingAsc()).thenReturn(Optional.of(crypto));
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
+                new Crypto(2L, 123456700L, "Ethereum", 3000.0, "Buy")));
 
         Optional<Crypto> result = cryptoService.getOldestCrypto();
 
         assertTrue(result.isPresent());
-        assertEquals("Bitcoin", result.get().name());
+        assertEquals("Ethereum", result.get().name());
     }
 
     @Test
     void testGetNewestCrypto() {
-        Crypto crypto = new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy");
-        when(cryptoRepository.findTopByOrderByTimingDesc()).thenReturn(Optional.of(crypto));
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
+                new Crypto(2L, 123456700L, "Ethereum", 3000.0, "Buy")));
 
         Optional<Crypto> result = cryptoService.getNewestCrypto();
 
@@ -201,13 +295,22 @@ class CryptoServiceTest {
 
     @Test
     void testGetNewestCryptoByName() {
-        Crypto crypto = new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy");
-        when(cryptoRepository.findTopByNameOrderByTimingDesc("Bitcoin")).thenReturn(Optional.of(crypto));
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
+                new Crypto(2L, 123456790L, "Bitcoin", 40000.0, "Buy")));
 
         Optional<Crypto> result = cryptoService.getNewestCryptoByName("Bitcoin");
 
         assertTrue(result.isPresent());
-        assertEquals("Bitcoin", result.get().name());
+        assertEquals(2L, result.get().id());
+    }
+
+    @Test
+    void testGetAllOldestAndNewestValuesGroupedByName() {
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, null),
+                new Crypto(2L, 123456790L, "Bitcoin", 40000.0, null)));
+
+        assertEquals(1L, cryptoService.getAllOldestValuesGroupedByName().get(0).id());
+        assertEquals(2L, cryptoService.getAllNewestValuesGroupedByName().get(0).id());
     }
 
     @Test
@@ -234,30 +337,161 @@ class CryptoServiceTest {
 
     @Test
     void testGetNormalizedValues() {
-        List<Crypto> cryptos = List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
                 new Crypto(2L, 123456789L, "Ethereum", 4000.0, "Buy"),
                 new Crypto(4L, 123456789L, "Ethereum", 3000.0, "Buy"),
-                new Crypto(3L, 123456789L, "Ripple", 1.0, "Buy"));
-        when(cryptoRepository.findAll()).thenReturn(cryptos);
+                new Crypto(3L, 123456789L, "Ripple", 1.0, "Buy")));
 
         Map<String, Double> result = cryptoService.getNormalizedValues();
 
         assertEquals(3, result.size());
-        assertTrue(result.containsKey("Bitcoin"));
+        assertEquals(0.0, result.get("Bitcoin"));
+        assertEquals(1.0 / 3, result.get("Ethereum"), 1e-9);
+        verifyNoInteractions(cryptoRepository);
     }
 
     @Test
     void testGetNormalizedValuesByName() {
-        List<Crypto> cryptos = List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
+        tickStore.addAll(List.of(new Crypto(1L, 123456789L, "Bitcoin", 50000.0, "Buy"),
                 new Crypto(2L, 123457789L, "Ethereum", 4000.0, "Buy"),
                 new Crypto(3L, 123458789L, "Ethereum", 2000.0, "Buy"),
                 new Crypto(4L, 123459789L, "Ethereum", 3000.0, "Buy"),
-                new Crypto(5L, 123460789L, "Ripple", 1.0, "Buy"));
-        when(cryptoRepository.findByName("Bitcoin")).thenReturn(cryptos);
+                new Crypto(5L, 123460789L, "Ripple", 1.0, "Buy")));
 
-        Map<String, Double> result = cryptoService.getNormalizedValuesByName("Bitcoin");
+        Map<String, Double> result = cryptoService.getNormalizedValuesByName("Ethereum");
 
-        assertEquals(3, result.size());
-        assertTrue(result.containsKey("Bitcoin"));
+        assertEquals(Map.of("Ethereum", 1.0), result);
+        assertTrue(cryptoService.getNormalizedValuesByName("Litecoin").isEmpty());
+    }
+
+    @Test
+    void testGetPriceRange() {
+        tickStore.addAll(List.of(
+                new Crypto(1L, 100L, "Bitcoin", 40.0, null),
+                new Crypto(2L, 200L, "Bitcoin", 30.0, null),
+                new Crypto(3L, 300L, "Bitcoin", 60.0, null),
+                new Crypto(4L, 400L, "Bitcoin", 10.0, null)));
+
+        PriceRange range = cryptoService.getPriceRange("Bitcoin", 150L, 350L).orElseThrow();
+
+        assertEquals(2L, range.first().id());
+        assertEquals(3L, range.last().id());
+        assertEquals(2L, range.min().id());
+        assertEquals(3L, range.max().id());
+        assertEquals(1.0, range.normalizedRange());
+        assertTrue(cryptoService.getPriceRange("Bitcoin", 500L, 600L).isEmpty());
+        assertThrows(InvalidCryptoDataException.class, () -> cryptoService.getPriceRange("Bitcoin", 300L, 100L));
+    }
+
+    @Test
+    void testGetCryptoWithHighestNormalization() {
+        long start = LocalDate.of(2022, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long hour = 60 * 60 * 1000L;
+        tickStore.addAll(List.of(
+                new Crypto(1L, start + hour, "Bitcoin", 100.0, null),
+                new Crypto(2L, start + 2 * hour, "Bitcoin", 110.0, null),
+                new Crypto(3L, start + hour, "Ethereum", 10.0, null),
+                new Crypto(4L, start + 2 * hour, "Ethereum", 15.0, null),
+                new Crypto(5L, start + 30 * hour, "Ethereum", 100.0, null)));
+
+        assertEquals(4L, cryptoService.getCryptoWithHighestNormalization("01/01/2022").get().id());
+        assertThrows(CryptoNotFoundException.class, () -> cryptoService.getCryptoWithHighestNormalization("01/05/2022"));
+    }
+
+    @Test
+    void testAddCryptoAssignsId() {
+        Crypto crypto = new Crypto(null, 123456789L, "Bitcoin", 50000.0, null);
+
+        Crypto saved = cryptoService.addCrypto(crypto);
+
+        assertNotNull(saved.id());
+        assertEquals(saved.id(), tickStore.series("Bitcoin").orElseThrow().first(0, Long.MAX_VALUE).get().id());
+    }
+
+    @Test
+    void testDeleteCryptoRemovesIndexedCrypto() {
+        Crypto crypto = new Crypto(1L, 123456789L, "Bitcoin", 50000.0, null);
+        tickStore.add(crypto);
+        when(cryptoRepository.findById(1L)).thenReturn(Optional.of(crypto));
+
+        cryptoService.deleteCrypto(1L);
+
+        assertEquals(0, tickStore.series("Bitcoin").orElseThrow().size());
+    }
+
+    @Test
+    void testGetOldestAndNewestCryptoByNameAndMonth() {
+        CalendarMonth march = CalendarMonth.of(null, 3, null);
+        long start = march.start();
+        tickStore.addAll(List.of(
+                new Crypto(1L, start - 1, "Bitcoin", 40000.0, null),
+                new Crypto(2L, start, "Bitcoin", 41000.0, null),
+                new Crypto(3L, start + 1000, "Bitcoin", 42000.0, null),
+                new Crypto(4L, march.end(), "Bitcoin", 43000.0, null)));
+
+        assertEquals(2L, cryptoService.getOldestCryptoByNameAndMonth("Bitcoin", march).get().id());
+        assertEquals(3L, cryptoService.getNewestCryptoByNameAndMonth("Bitcoin", march).get().id());
+        assertTrue(cryptoService.getOldestCryptoByNameAndMonth("Bitcoin", CalendarMonth.of(null, 6, null)).isEmpty());
+        verifyNoInteractions(cryptoRepository);
+    }
+
+    @Test
+    void testGetCryptoWithMinAndMaxValueByNameAndMonth() {
+        CalendarMonth march = CalendarMonth.of(null, 3, null);
+        long start = march.start();
+        tickStore.addAll(List.of(
+                new Crypto(1L, start, "Bitcoin", 41000.0, null),
+                new Crypto(2L, start + 1000, "Bitcoin", 45000.0, null),
+                new Crypto(3L, start + 2000, "Bitcoin", 39000.0, null)));
+
+        assertEquals(45000.0, cryptoService.getCryptoWithMaxValueByNameAndMonth("Bitcoin", march).get().price());
+        assertEquals(39000.0, cryptoService.getCryptoWithMinValueByNameAndMonth("Bitcoin", march).get().price());
+        assertTrue(cryptoService.getCryptoWithMaxValueByNameAndMonth("Ethereum", march).isEmpty());
+    }
+
+    @Test
+    void testMonthQueriesOfPreviousYear() {
+        CalendarMonth lastYear = CalendarMonth.of(Year.now().getValue() - 1, 3, null);
+        tickStore.addAll(List.of(
+                new Crypto(1L, lastYear.start(), "Bitcoin", 41000.0, null),
+                new Crypto(2L, CalendarMonth.of(null, 3, null).start(), "Bitcoin", 45000.0, null)));
+
+        assertEquals(1L, cryptoService.getOldestCryptoByNameAndMonth("Bitcoin", lastYear).get().id());
+        assertEquals(1L, cryptoService.getNewestCryptoByNameAndMonth("Bitcoin", lastYear).get().id());
+    }
+
+    @Test
+    void testMonthQueriesInOtherZone() {
+        // Kiritimati is UTC+14, so the first hours of April there are still March in UTC
+        CalendarMonth aprilUtc = CalendarMonth.of(2023, 4, "UTC");
+        CalendarMonth aprilKiritimati = CalendarMonth.of(2023, 4, "Pacific/Kiritimati");
+        tickStore.addAll(List.of(
+                new Crypto(1L, aprilKiritimati.start(), "Bitcoin", 41000.0, null),
+                new Crypto(2L, aprilUtc.start(), "Bitcoin", 45000.0, null),
+                new Crypto(3L, aprilKiritimati.end() - 1, "Bitcoin", 39000.0, null),
+                new Crypto(4L, aprilUtc.end() - 1, "Bitcoin", 42000.0, null)));
+
+        assertEquals(1L, cryptoService.getOldestCryptoByNameAndMonth("Bitcoin", aprilKiritimati).get().id());
+        assertEquals(3L, cryptoService.getNewestCryptoByNameAndMonth("Bitcoin", aprilKiritimati).get().id());
+        assertEquals(2L, cryptoService.getOldestCryptoByNameAndMonth("Bitcoin", aprilUtc).get().id());
+        assertEquals(4L, cryptoService.getNewestCryptoByNameAndMonth("Bitcoin", aprilUtc).get().id());
+        assertEquals(39000.0, cryptoService.getCryptoWithMinValueByNameAndMonth("Bitcoin", aprilKiritimati).get().price());
+    }
+
+    @Test
+    void testGetCryptoWithMinAndMaxValueByNameAndDays() {
+        long now = System.currentTimeMillis();
+        long day = 24 * 60 * 60 * 1000L;
+        tickStore.addAll(List.of(
+                new Crypto(1L, now - 10 * day, "Bitcoin", 10.0, null),
+                new Crypto(2L, now - 2 * day, "Bitcoin", 30.0, null),
+                new Crypto(3L, now - day, "Bitcoin", 20.0, null),
+                new Crypto(4L, now - day, "Ethereum", 1.0, null)));
+
+        assertEquals(3L, cryptoService.getCryptoWithMinValueByNameAndDays("Bitcoin", 3).get().id());
+        assertEquals(2L, cryptoService.getCryptoWithMaxValueByNameAndDays("Bitcoin", 3).get().id());
+        assertEquals(1L, cryptoService.getCryptoWithMinValueByNameAndDays("Bitcoin", 30).get().id());
+        assertEquals(2L, cryptoService.getCryptoWithHighestNormalizationByNameAndDays("Bitcoin", 3).get().id());
+        verifyNoInteractions(cryptoRepository);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package com.xmcy.crypto.service;
+
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.model.Recommendation;
+import com.xmcy.crypto.model.RecommendationSignal;
+import com.xmcy.crypto.store.TickStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecommendationEngineTest {
+
+    private static final long DAY = Duration.ofDays(1).toMillis();
+
+    private TickStore tickStore;
+    private RecommendationEngine recommendationEngine;
+
+    @BeforeEach
+    public void setUp() {
+        tickStore = new TickStore();
+        recommendationEngine = new RecommendationEngine(tickStore, Duration.ofDays(30), Duration.ofDays(7), 0.25);
+        recommendationEngine.register();
+    }
+
+    @Test
+    public void testSignalsFollowMomentum() {
+        tickStore.addAll(series("Bitcoin", 1, 100, 101, 102, 103, 104, 105, 106, 107, 108, 109, 110));
+        tickStore.addAll(series("Ethereum", 1, 110, 109, 108, 107, 106, 105, 104, 103, 102, 101, 100));
+        tickStore.addAll(series("Ripple", 1, 100, 110, 100, 105, 110, 100, 110, 100, 110, 100, 105));
+
+        assertEquals(List.of("Bitcoin"), names(recommendationEngine.signals(Recommendation.BUY)));
+        assertEquals(List.of("Ethereum"), names(recommendationEngine.signals(Recommendation.SELL)));
+        assertEquals(List.of("Ripple"), names(recommendationEngine.signals(Recommendation.HOLD)));
+        RecommendationSignal bitcoin = recommendationEngine.signals(Recommendation.BUY).get(0);
+        assertEquals(0.1, bitcoin.normalizedRange(), 1e-9);
+        assertEquals(110.0 / 103 - 1, bitcoin.momentum(), 1e-9);
+        assertEquals(10 * DAY, bitcoin.latest().timing());
+    }
+
+    @Test
+    public void testRecomputesWhenTicksChange() {
+        tickStore.addAll(series("Bitcoin", 1, 100, 101, 102, 103, 104, 105, 106, 107, 108, 109, 110));
+        assertEquals(1, recommendationEngine.signals(Recommendation.BUY).size());
+
+        Crypto drop = new Crypto(99L, 11 * DAY, "Bitcoin", 90.0, null);
+        tickStore.add(drop);
+
+        assertTrue(recommendationEngine.signals(Recommendation.BUY).isEmpty());
+        assertEquals(List.of("Bitcoin"), names(recommendationEngine.signals(Recommendation.SELL)));
+
+        tickStore.remove(drop);
+
+        assertEquals(List.of("Bitcoin"), names(recommendationEngine.signals(Recommendation.BUY)));
+        assertTrue(recommendationEngine.signals(Recommendation.SELL).isEmpty());
+    }
+
+    @Test
+    public void testWindowsEndAtLatestTick() {
+        // A crash long before the range window does not count against the recent rise
+        List<Crypto> ticks = new ArrayList<>(series("Bitcoin", 1, 100, 101, 102, 103, 104, 105, 106, 107, 108, 109, 110));
+        ticks.add(0, new Crypto(1000L, -365 * DAY, "Bitcoin", 1.0, null));
+        tickStore.addAll(ticks);
+
+        RecommendationSignal signal = recommendationEngine.signals().get(0);
+        assertEquals(Recommendation.BUY, signal.recommendation());
+        assertEquals(0.1, signal.normalizedRange(), 1e-9);
+    }
+
+    @Test
+    public void testRemovingAllTicksDropsSignal() {
+        Crypto tick = new Crypto(1L, DAY, "Bitcoin", 100.0, null);
+        tickStore.add(tick);
+        assertEquals(List.of("Bitcoin"), names(recommendationEngine.signals(Recommendation.HOLD)));
+
+        tickStore.remove(tick);
+
+        assertTrue(recommendationEngine.signals().isEmpty());
+        assertTrue(recommendationEngine.signals(Recommendation.HOLD).isEmpty());
+    }
+
+    private static List<Crypto> series(String name, long firstId, double... prices) {
+        List<Crypto> ticks = new ArrayList<>();
+        for (int i = 0; i < prices.length; i++) {
+            ticks.add(new Crypto(firstId + i + name.hashCode() * 100L, i * DAY, name, prices[i], null));
+        }
+        return ticks;
+    }
+
+    private static List<String> names(List<RecommendationSignal> signals) {
+        return signals.stream().map(RecommendationSignal::name).toList();
+    }
+}
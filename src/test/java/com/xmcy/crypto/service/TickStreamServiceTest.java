@@ -0,0 +1,193 @@
+package com.xmcy.crypto.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xmcy.crypto.controller.CryptoController;
+import com.xmcy.crypto.helper.CryptoExporter;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.store.SymbolRegistry;
+import com.xmcy.crypto.store.TickStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TickStreamServiceTest {
+
+    private final TickStore tickStore = new TickStore();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> pending = new ArrayList<>();
+
+    private CryptoController controller(int bufferSize) {
+        TickStreamService service = new TickStreamService(tickStore, pending::add, new ObjectMapper(), meterRegistry,
+                bufferSize, 60_000);
+        service.register();
+        return new CryptoController(mock(CryptoService.class), mock(CryptoExporter.class),
+                mock(BatchQueryService.class), service, new SymbolRegistry(List.of("Bitcoin:BTC", "Ethereum:ETH")));
+    }
+
+    private Client subscribe(CryptoController controller, List<String> symbols) throws IOException {
+        Client client = new Client();
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.startAsync()).thenReturn(client.context);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(client);
+        controller.streamTicks(symbols, request, response);
+        // As the container does once the request returns
+        client.listener.onWritePossible();
+        return client;
+    }
+
+    private void drain() {
+        List<Runnable> tasks = new ArrayList<>(pending);
+        pending.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("stream.subscribers").gauge().value();
+    }
+
+    @Test
+    public void testStreamsOnlyRequestedSymbols() throws Exception {
+        CryptoController controller = controller(16);
+        Client bitcoin = subscribe(controller, List.of("BTC"));
+        Client all = subscribe(controller, null);
+
+        tickStore.add(new Crypto(1L, 100L, "Bitcoin", 10.0, null));
+        tickStore.add(new Crypto(2L, 200L, "Ethereum", 20.0, null));
+        drain();
+
+        String bitcoinEvents = bitcoin.events();
+        assertTrue(bitcoinEvents.contains("event:tick"));
+        assertTrue(bitcoinEvents.contains("\"id\":1"));
+        assertFalse(bitcoinEvents.contains("\"id\":2"));
+        String allEvents = all.events();
+        assertTrue(allEvents.indexOf("\"id\":1") < allEvents.indexOf("\"id\":2"));
+    }
+
+    @Test
+    public void testLaggingSubscriberSkipsToLatestTick() throws Exception {
+        Client client = subscribe(controller(4), null);
+
+        List<Crypto> ticks = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            ticks.add(new Crypto(i, i * 100, "Bitcoin", (double) i, null));
+        }
+        tickStore.addAll(ticks);
+        tickStore.add(new Crypto(11L, 100L, "Ethereum", 1.0, null));
+        drain();
+
+        String events = client.events();
+        assertEquals(2, events.split("event:tick", -1).length - 1);
+        assertTrue(events.contains("\"id\":10"));
+        assertTrue(events.contains("\"id\":11"));
+    }
+
+    @Test
+    public void testLaggingSubscriberIsNotSentRemovedTicks() throws Exception {
+        Client client = subscribe(controller(4), null);
+
+        List<Crypto> ticks = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            ticks.add(new Crypto(i, i * 100, "Bitcoin", (double) i, null));
+        }
+        tickStore.addAll(ticks);
+        tickStore.add(new Crypto(11L, 100L, "Ethereum", 1.0, null));
+        tickStore.remove(ticks.get(9));
+        tickStore.clear();
+        tickStore.add(new Crypto(12L, 200L, "Litecoin", 2.0, null));
+        drain();
+
+        String events = client.events();
+        assertEquals(1, events.split("event:tick", -1).length - 1);
+        assertTrue(events.contains("\"id\":12"));
+    }
+
+    @Test
+    public void testSlowClientNeitherBlocksNorHoldsUpOthers() throws Exception {
+        CryptoController controller = controller(16);
+        Client slow = subscribe(controller, null);
+        Client fast = subscribe(controller, null);
+        slow.ready = false;
+
+        tickStore.add(new Crypto(1L, 100L, "Bitcoin", 10.0, null));
+        drain();
+
+        assertTrue(fast.events().contains("\"id\":1"));
+        assertFalse(slow.events().contains("\"id\":1"));
+
+        tickStore.add(new Crypto(2L, 200L, "Bitcoin", 20.0, null));
+        drain();
+        slow.ready = true;
+        slow.listener.onWritePossible();
+
+        String events = slow.events();
+        assertTrue(events.indexOf("\"id\":1") >= 0 && events.indexOf("\"id\":1") < events.indexOf("\"id\":2"));
+        assertTrue(slow.flushed);
+    }
+
+    @Test
+    public void testFailedWriteDropsSubscriber() throws Exception {
+        Client client = subscribe(controller(16), null);
+        client.broken = true;
+        assertEquals(1, subscribers());
+
+        tickStore.add(new Crypto(1L, 100L, "Bitcoin", 10.0, null));
+        drain();
+
+        verify(client.context).complete();
+        assertEquals(0, subscribers());
+    }
+
+    private static final class Client extends ServletOutputStream {
+        private final AsyncContext context = mock(AsyncContext.class);
+        private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        private WriteListener listener;
+        private boolean ready = true;
+        private boolean broken;
+        private boolean flushed;
+
+        private String events() {
+            return received.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.listener = writeListener;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            received.write(b);
+        }
+
+        @Override
+        public void flush() {
+            flushed = true;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.xmcy.crypto.service;
+
+import com.xmcy.crypto.exception.UploadJobNotFoundException;
+import com.xmcy.crypto.exception.UploadJobRejectedException;
+import com.xmcy.crypto.exception.UploadTooLargeException;
+import com.xmcy.crypto.helper.CsvParser;
+import com.xmcy.crypto.helper.DataInserter;
+import com.xmcy.crypto.model.IngestResult;
+import com.xmcy.crypto.model.UploadJob;
+import com.xmcy.crypto.model.UploadJobStatus;
+import com.xmcy.crypto.store.SymbolRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UploadJobServiceTest {
+
+    private static final List<String> SYMBOLS = List.of("Bitcoin:BTC", "Ethereum:ETH", "Litecoin:LTC");
+
+    @Mock
+    private DataInserter dataInserter;
+
+    private final List<Runnable> pending = new ArrayList<>();
+    private UploadJobService uploadJobService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(dataInserter.insertData(anyList())).thenAnswer(invocation ->
+                new IngestResult(invocation.<List<?>>getArgument(0).size(), 0, 0));
+        uploadJobService = new UploadJobService(new CsvParser(new SymbolRegistry(SYMBOLS), new SimpleMeterRegistry()), dataInserter, pending::add, 2, Duration.ofHours(1), 1, 2, DataSize.ofKilobytes(1));
+    }
+
+    private UploadJob submit(String csvContent) {
+        return uploadJobService.submit(new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void runPending() {
+        pending.forEach(Runnable::run);
+        pending.clear();
+    }
+
+    @Test
+    public void testJobReportsProgressAndRejectedLines() {
+        UploadJob submitted = submit("timing,symbol,price\n1,BTC,1.0\n2,BTC\n3,ETH,3.0\n4,FOO,1.0\n5,LTC,100\n");
+        assertEquals(UploadJobStatus.QUEUED, submitted.status());
+
+        runPending();
+
+        UploadJob job = uploadJobService.getJob(submitted.id());
+        assertEquals(UploadJobStatus.COMPLETED, job.status());
+        assertEquals(3, job.rowsProcessed());
+        assertEquals(2, job.rowsRejected());
+        assertEquals(3, job.rowsInserted());
+        assertEquals(List.of("3: Invalid CSV line: 2,BTC"), job.rejectedLines());
+        assertTrue(job.finishedAt() != null && !job.finishedAt().isBefore(job.startedAt()));
+        verify(dataInserter, times(2)).insertData(anyList());
+    }
+
+    @Test
+    public void testFailedInsertKeepsEarlierBatches() {
+        when(dataInserter.insertData(anyList()))
+                .thenReturn(new IngestResult(2, 0, 0))
+                .thenThrow(new IllegalStateException("duplicate key"));
+        UploadJob submitted = submit("timing,symbol,price\n1,BTC,1.0\n2,BTC,2.0\n3,ETH,3.0\n");
+
+        runPending();
+
+        UploadJob job = uploadJobService.getJob(submitted.id());
+        assertEquals(UploadJobStatus.FAILED, job.status());
+        assertEquals(2, job.rowsProcessed());
+        assertEquals("duplicate key", job.error());
+    }
+
+    @Test
+    public void testRejectsJobWhenExecutorIsFull() {
+        UploadJobService full = new UploadJobService(new CsvParser(new SymbolRegistry(SYMBOLS), new SimpleMeterRegistry()), dataInserter,
+                task -> { throw new RejectedExecutionException(); }, 2, Duration.ofHours(1), 1, 2, DataSize.ofKilobytes(1));
+
+        assertThrows(UploadJobRejectedException.class,
+                () -> full.submit(new ByteArrayInputStream("timing,symbol,price\n".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void testRejectsJobBeforeReadingItWhenJobsAreQueued() throws Exception {
+        submit("timing,symbol,price\n");
+        submit("timing,symbol,price\n");
+        InputStream third = mock(InputStream.class);
+
+        assertThrows(UploadJobRejectedException.class, () -> uploadJobService.submit(third));
+        verify(third, never()).read(any(byte[].class));
+
+        runPending();
+        assertEquals(UploadJobStatus.QUEUED, submit("timing,symbol,price\n").status());
+    }
+
+    @Test
+    public void testRejectsUploadLargerThanMaxSize() {
+        String csv = "timing,symbol,price\n" + "1,BTC,1.0\n".repeat(200);
+
+        assertThrows(UploadTooLargeException.class, () -> submit(csv));
+        assertEquals(UploadJobStatus.QUEUED, submit("timing,symbol,price\n").status());
+        assertEquals(UploadJobStatus.QUEUED, submit("timing,symbol,price\n").status());
+    }
+
+    @Test
+    public void testFinishedJobsExpire() {
+        UploadJobService shortLived = new UploadJobService(new CsvParser(new SymbolRegistry(SYMBOLS), new SimpleMeterRegistry()), dataInserter, Runnable::run, 2,
+                Duration.ZERO, 1, 2, DataSize.ofKilobytes(1));
+        UploadJob first = shortLived.submit(new ByteArrayInputStream("timing,symbol,price\n".getBytes(StandardCharsets.UTF_8)));
+        UploadJob second = shortLived.submit(new ByteArrayInputStream("timing,symbol,price\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertThrows(UploadJobNotFoundException.class, () -> shortLived.getJob(first.id()));
+        assertEquals(UploadJobStatus.COMPLETED, shortLived.getJob(second.id()).status());
+    }
+}
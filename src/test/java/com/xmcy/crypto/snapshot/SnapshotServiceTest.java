@@ -0,0 +1,167 @@
+package com.xmcy.crypto.snapshot;
+
+import com.xmcy.crypto.helper.CsvDataLoader;
+import com.xmcy.crypto.helper.DataInserter;
+import com.xmcy.crypto.model.Crypto;
+import com.xmcy.crypto.store.TickStore;
+import com.xmcy.crypto.wal.WriteAheadLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SnapshotServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    private final List<EmbeddedDatabase> databases = new ArrayList<>();
+    private CsvDataLoader csvDataLoader;
+
+    @BeforeEach
+    public void setUp() {
+        csvDataLoader = mock(CsvDataLoader.class);
+        when(csvDataLoader.isLoaded()).thenReturn(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        databases.forEach(EmbeddedDatabase::shutdown);
+    }
+
+    @Test
+    public void testRestoresWrittenSnapshot() throws Exception {
+        Instance source = new Instance();
+        source.dataInserter.insertData(List.of(
+                new Crypto(11L, 300L, "Bitcoin", 3.5, null),
+                new Crypto(12L, 100L, "Bitcoin", 1.25, null),
+                new Crypto(13L, 200L, "Ethereum", Double.NaN, null)));
+        source.dataInserter.addData(new Crypto(14L, 400L, "Bitcoin", 4.0, "BUY"));
+        source.snapshotService.snapshot();
+        Path latest = source.snapshotService.snapshot();
+
+        Instance restored = new Instance();
+        assertTrue(restored.snapshotService.restore());
+
+        try (Stream<Path> generations = Files.list(directory)) {
+            assertEquals(List.of(latest), generations.toList());
+        }
+        assertEquals(4, restored.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cryptos", Integer.class));
+        assertEquals(1.25, restored.jdbcTemplate.queryForObject("SELECT price FROM cryptos WHERE id = 12", Double.class));
+        assertArrayEquals(new long[]{12L, 11L, 14L}, restored.tickStore.series("Bitcoin").orElseThrow().columns().ids());
+        assertArrayEquals(new long[]{100L, 300L, 400L}, restored.tickStore.series("Bitcoin").orElseThrow().columns().timings());
+        assertEquals("BUY", restored.jdbcTemplate.queryForObject("SELECT recommendation FROM cryptos WHERE id = 14", String.class));
+        assertEquals("BUY", restored.tickStore.find("Bitcoin", 400L).orElseThrow().recommendation());
+        assertNull(restored.tickStore.find("Bitcoin", 300L).orElseThrow().recommendation());
+        assertTrue(Double.isNaN(restored.tickStore.find("Ethereum", 200L).orElseThrow().price()));
+    }
+
+    @Test
+    public void testDamagedSnapshotIsNotRestored() throws Exception {
+        Instance source = new Instance();
+        source.dataInserter.insertData(List.of(new Crypto(1L, 100L, "Bitcoin", 1.0, null),
+                new Crypto(2L, 100L, "Ethereum", 2.0, null)));
+        Path generation = source.snapshotService.snapshot();
+        Path file = generation.resolve("symbol-1.ticks");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        Instance restored = new Instance();
+        assertFalse(restored.snapshotService.restore());
+
+        assertEquals(0, restored.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cryptos", Integer.class));
+        assertTrue(restored.tickStore.allSeries().isEmpty());
+    }
+
+    @Test
+    public void testSnapshotFailingToLoadIsUndone() throws Exception {
+        Instance source = new Instance();
+        source.dataInserter.insertData(List.of(new Crypto(1L, 100L, "Bitcoin", 1.0, null),
+                new Crypto(2L, 100L, "Ethereum", 2.0, null)));
+        source.snapshotService.snapshot();
+
+        Instance restored = new Instance();
+        // The id of the second symbol's tick is taken, as when an update raced the snapshot
+        restored.jdbcTemplate.update("INSERT INTO cryptos (id, timing, name, price) VALUES (2, 999, 'Litecoin', 3.0)");
+        assertFalse(restored.snapshotService.restore());
+
+        assertEquals(0, restored.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cryptos", Integer.class));
+        assertTrue(restored.tickStore.allSeries().isEmpty());
+    }
+
+    @Test
+    public void testTruncatedSnapshotIsNotRestored() throws Exception {
+        Instance source = new Instance();
+        source.dataInserter.insertData(List.of(new Crypto(1L, 100L, "Bitcoin", 1.0, null)));
+        Path file = source.snapshotService.snapshot().resolve("symbol-0.ticks");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+
+        assertFalse(new Instance().snapshotService.restore());
+    }
+
+    @Test
+    public void testUnfinishedSnapshotIsIgnored() throws Exception {
+        Instance source = new Instance();
+        source.dataInserter.insertData(List.of(new Crypto(1L, 100L, "Bitcoin", 1.0, null)));
+        Path generation = source.snapshotService.snapshot();
+        Files.delete(generation.resolve(SnapshotService.MANIFEST));
+
+        assertFalse(new Instance().snapshotService.restore());
+    }
+
+    @Test
+    public void testNoSnapshotBeforeDataIsLoaded() throws Exception {
+        when(csvDataLoader.isLoaded()).thenReturn(false);
+        Instance source = new Instance();
+        source.dataInserter.insertData(List.of(new Crypto(1L, 100L, "Bitcoin", 1.0, null)));
+
+        source.snapshotService.snapshotOnShutdown();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private final class Instance {
+        private final JdbcTemplate jdbcTemplate;
+        private final TickStore tickStore = new TickStore();
+        private final DataInserter dataInserter;
+        private final SnapshotService snapshotService;
+
+        private Instance() {
+            EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+            databases.add(database);
+            jdbcTemplate = new JdbcTemplate(database);
+            jdbcTemplate.execute("CREATE TABLE cryptos (id BIGINT PRIMARY KEY, timing BIGINT, name VARCHAR(255), price DOUBLE, recommendation VARCHAR(255))");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX uk_cryptos_timing_name ON cryptos (timing, name)");
+            WriteAheadLog writeAheadLog = new WriteAheadLog(false, null, Duration.ZERO);
+            dataInserter = new DataInserter(new NamedParameterJdbcTemplate(jdbcTemplate), tickStore, writeAheadLog,
+                    new SimpleMeterRegistry());
+            snapshotService = new SnapshotService(tickStore, dataInserter, csvDataLoader, writeAheadLog, true, directory, 2);
+        }
+    }
+}
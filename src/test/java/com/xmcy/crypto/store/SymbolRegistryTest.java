@@ -0,0 +1,59 @@
+package com.xmcy.crypto.store;
+
+import com.xmcy.crypto.exception.CryptoNotFoundException;
+import com.xmcy.crypto.exception.InvalidCryptoDataException;
+import com.xmcy.crypto.model.CryptoSymbol;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SymbolRegistryTest {
+
+    private SymbolRegistry symbolRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        symbolRegistry = new SymbolRegistry(List.of("Bitcoin:BTC", " Ethereum : eth "));
+    }
+
+    @Test
+    public void testFindsByNameOrSymbolIgnoringCase() {
+        CryptoSymbol bitcoin = symbolRegistry.find("Bitcoin");
+
+        assertEquals(new CryptoSymbol(0, "Bitcoin", "BTC"), bitcoin);
+        for (String key : List.of("bitcoin", "BITCOIN", "BTC", "btc", "bTc")) {
+            assertSame(bitcoin, symbolRegistry.find(key));
+        }
+        assertEquals(new CryptoSymbol(1, "Ethereum", "ETH"), symbolRegistry.find("eth"));
+        assertSame(symbolRegistry.find("Bitcoin").name(), symbolRegistry.name("btc"));
+        assertThrows(CryptoNotFoundException.class, () -> symbolRegistry.find("Dogecoin"));
+        assertThrows(CryptoNotFoundException.class, () -> symbolRegistry.find(null));
+    }
+
+    @Test
+    public void testRegistersAtRuntime() {
+        CryptoSymbol solana = symbolRegistry.register("Solana", "sol");
+
+        assertEquals(new CryptoSymbol(2, "Solana", "SOL"), solana);
+        assertSame(solana, symbolRegistry.find("SOL"));
+        assertSame(solana, symbolRegistry.byId(2));
+        assertSame(solana, symbolRegistry.register("solana", "SOL"));
+        assertEquals(List.of("Bitcoin", "Ethereum", "Solana"),
+                symbolRegistry.symbols().stream().map(CryptoSymbol::name).toList());
+    }
+
+    @Test
+    public void testRejectsConflictingSymbols() {
+        assertThrows(InvalidCryptoDataException.class, () -> symbolRegistry.register("Bitcoin", "XBT"));
+        assertThrows(InvalidCryptoDataException.class, () -> symbolRegistry.register("Bitcoin Cash", "btc"));
+        assertThrows(InvalidCryptoDataException.class, () -> symbolRegistry.register("ETH", "ETH2"));
+        assertThrows(InvalidCryptoDataException.class, () -> symbolRegistry.register(" ", "X"));
+        assertThrows(CryptoNotFoundException.class, () -> symbolRegistry.byId(2));
+        assertThrows(IllegalArgumentException.class, () -> new SymbolRegistry(List.of("Bitcoin")));
+    }
+}
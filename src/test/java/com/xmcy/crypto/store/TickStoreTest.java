@@ -0,0 +1,279 @@
+package com.xmcy.crypto.store;
+
+import com.xmcy.crypto.model.Candle;
+import com.xmcy.crypto.model.CandleResolution;
+import com.xmcy.crypto.model.Crypto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickStoreTest {
+
+    private TickStore tickStore;
+
+    @BeforeEach
+    public void setUp() {
+        tickStore = new TickStore();
+    }
+
+    @Test
+    public void testAddAllKeepsTimingOrder() {
+        tickStore.addAll(List.of(
+                new Crypto(1L, 300L, "Bitcoin", 3.0, null),
+                new Crypto(2L, 100L, "Bitcoin", 1.0, null),
+                new Crypto(3L, 200L, "Ethereum", 2.0, null)));
+        tickStore.add(new Crypto(4L, 150L, "Bitcoin", 5.0, null));
+
+        SymbolSeries bitcoin = tickStore.series("Bitcoin").orElseThrow();
+        assertEquals(3, bitcoin.size());
+        assertEquals(2L, bitcoin.first(0, Long.MAX_VALUE).get().id());
+        assertEquals(4L, bitcoin.first(101, Long.MAX_VALUE).get().id());
+        assertEquals(1L, bitcoin.last(0, Long.MAX_VALUE).get().id());
+        assertEquals(1, tickStore.series("Ethereum").orElseThrow().size());
+    }
+
+    @Test
+    public void testMergeOlderBatchIntoExistingSeries() {
+        tickStore.addAll(List.of(
+                new Crypto(1L, 100L, "Bitcoin", 1.0, null),
+                new Crypto(2L, 300L, "Bitcoin", 3.0, null)));
+        tickStore.addAll(List.of(
+                new Crypto(3L, 50L, "Bitcoin", 0.5, null),
+                new Crypto(4L, 200L, "Bitcoin", 2.0, "Buy")));
+
+        SymbolSeries bitcoin = tickStore.series("Bitcoin").orElseThrow();
+        assertEquals(4, bitcoin.size());
+        assertEquals(3L, bitcoin.first(0, Long.MAX_VALUE).get().id());
+        assertEquals(4L, bitcoin.first(150, 250).get().id());
+        assertEquals("Buy", bitcoin.first(150, 250).get().recommendation());
+        assertEquals(2L, bitcoin.last(0, Long.MAX_VALUE).get().id());
+    }
+
+    @Test
+    public void testMinAndMaxWithinRange() {
+        tickStore.addAll(List.of(
+                new Crypto(1L, 100L, "Bitcoin", 10.0, null),
+                new Crypto(2L, 200L, "Bitcoin", 30.0, null),
+                new Crypto(3L, 300L, "Bitcoin", 20.0, null),
+                new Crypto(4L, 400L, "Bitcoin", 5.0, null)));
+
+        SymbolSeries bitcoin = tickStore.series("Bitcoin").orElseThrow();
+        assertEquals(2L, bitcoin.max(0, Long.MAX_VALUE).get().id());
+        assertEquals(4L, bitcoin.min(0, Long.MAX_VALUE).get().id());
+        assertEquals(3L, bitcoin.max(250, 400).get().id());
+        assertEquals(1L, bitcoin.min(100, 300).get().id());
+        assertEquals(Optional.empty(), bitcoin.min(500, 600));
+    }
+
+    @Test
+    public void testAggregateWithinRange() {
+        tickStore.addAll(List.of(
+                new Crypto(1L, 100L, "Bitcoin", 10.0, null),
+                new Crypto(2L, 200L, "Bitcoin", 30.0, null),
+                new Crypto(3L, 300L, "Bitcoin", 20.0, null),
+                new Crypto(4L, 400L, "Bitcoin", 5.0, null)));
+
+        SymbolSeries bitcoin = tickStore.series("Bitcoin").orElseThrow();
+        SymbolAggregate aggregate = bitcoin.aggregate(150, 350);
+        assertEquals(2L, aggregate.first().id());
+        assertEquals(3L, aggregate.last().id());
+        assertEquals(3L, aggregate.min().id());
+        assertEquals(2L, aggregate.max().id());
+        assertEquals(0.5, aggregate.normalizedRange());
+        assertNull(bitcoin.aggregate(500, 600));
+    }
+
+    @Test
+    public void testRangeIndexMatchesScanAcrossGrowthAndRemovals() {
+        Random random = new Random(7);
+        List<Crypto> ticks = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            Crypto tick = new Crypto((long) i + 1, (long) i * 10, "Bitcoin", (double) random.nextInt(50), null);
+            ticks.add(tick);
+            tickStore.add(tick);
+            if (i % 300 == 299) {
+                tickStore.remove(ticks.remove(random.nextInt(ticks.size())));
+            }
+            if (i % 97 == 0) {
+                long from = random.nextInt(i * 10 + 1);
+                long to = from + random.nextInt(3000);
+                SymbolSeries bitcoin = tickStore.series("Bitcoin").orElseThrow();
+                assertEquals(scanMin(ticks, from, to), bitcoin.min(from, to).map(Crypto::id).orElse(null));
+            }
+        }
+    }
+
+    @Test
+    public void testAggregateFollowsRemovedMinAndMax() {
+        Random random = new Random(11);
+        List<Crypto> ticks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ticks.add(new Crypto((long) i + 1, (long) i * 10, "Bitcoin", (double) random.nextInt(40), null));
+        }
+        tickStore.addAll(ticks);
+        SymbolSeries bitcoin = tickStore.series("Bitcoin").orElseThrow();
+        List<Crypto> remaining = new ArrayList<>(ticks);
+        while (remaining.size() > 1) {
+            SymbolAggregate aggregate = bitcoin.aggregate();
+            Crypto removed = remaining.size() % 3 == 0 ? aggregate.max()
+                    : remaining.size() % 3 == 1 ? aggregate.min() : remaining.get(0);
+            tickStore.remove(removed);
+            remaining.remove(removed);
+
+            aggregate = bitcoin.aggregate();
+            assertEquals(scanMin(remaining, 0, Long.MAX_VALUE), aggregate.min().id());
+            assertEquals(remaining.stream().mapToDouble(Crypto::price).max().orElseThrow(), aggregate.max().price());
+            assertEquals(remaining.get(0), aggregate.first());
+            assertEquals(remaining.get(remaining.size() - 1), aggregate.last());
+        }
+        tickStore.remove(remaining.get(0));
+        assertNull(bitcoin.aggregate());
+    }
+
+    private static Long scanMin(List<Crypto> ticks, long from, long to) {
+        Crypto min = null;
+        for (Crypto tick : ticks) {
+            if (tick.timing() >= from && tick.timing() <= to && (min == null || tick.price() < min.price())) {
+                min = tick;
+            }
+        }
+        return min == null ? null : min.id();
+    }
+
+    @Test
+    public void testRollingAggregateMatchesRangeScan() {
+        long day = 24 * 60 * 60 * 1000L;
+        long now = LocalDate.of(2022, 6, 30).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Random random = new Random(42);
+        long timing = now - 100 * day;
+        long id = 1;
+        List<Crypto> ticks = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            timing += random.nextInt((int) (day / 15));
+            // Mostly appends with an occasional late tick and removal, which invalidate the windows
+            long tickTiming = random.nextInt(20) == 0 ? timing - random.nextInt((int) (10 * day)) : timing;
+            Crypto tick = new Crypto(id++, tickTiming, "Bitcoin", (double) random.nextInt(100), null);
+            ticks.add(tick);
+            tickStore.add(tick);
+            if (random.nextInt(50) == 0) {
+                tickStore.remove(ticks.remove(random.nextInt(ticks.size())));
+            }
+            if (i % 50 == 0) {
+                assertRollingMatchesScan(timing + random.nextInt((int) day));
+            }
+        }
+        // Older than the newest tick takes the scan, later days move the windows past their ticks
+        assertRollingMatchesScan(timing - day);
+        assertRollingMatchesScan(timing + 5 * day);
+        assertRollingMatchesScan(timing + 200 * day);
+    }
+
+    private void assertRollingMatchesScan(long now) {
+        SymbolSeries bitcoin = tickStore.series("Bitcoin").orElseThrow();
+        for (int days : new int[]{1, 3, 7, 30, 90}) {
+            long from = LocalDate.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()).minusDays(days)
+                    .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            assertEquals(bitcoin.aggregate(from, now), bitcoin.rollingAggregate(days, now), "days=" + days);
+        }
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        Crypto original = new Crypto(1L, 100L, "Bitcoin", 10.0, null);
+        tickStore.addAll(List.of(original, new Crypto(2L, 200L, "Bitcoin", 20.0, null)));
+
+        tickStore.update(original, new Crypto(1L, 300L, "Bitcoin", 30.0, null));
+        SymbolSeries bitcoin = tickStore.series("Bitcoin").orElseThrow();
+        assertEquals(2L, bitcoin.first(0, Long.MAX_VALUE).get().id());
+        assertEquals(30.0, bitcoin.last(0, Long.MAX_VALUE).get().price());
+
+        tickStore.remove(new Crypto(2L, 200L, "Bitcoin", null, null));
+        assertEquals(1, bitcoin.size());
+        assertEquals(1L, bitcoin.first(0, Long.MAX_VALUE).get().id());
+    }
+
+    @Test
+    public void testUpdatePricesInPlace() {
+        long hour = 60 * 60 * 1000L;
+        long start = CandleResolution.DAILY.bucketStart(1641009600000L, ZoneId.systemDefault());
+        tickStore.addAll(List.of(
+                new Crypto(1L, start + hour, "Bitcoin", 10.0, null),
+                new Crypto(2L, start + 2 * hour, "Bitcoin", 30.0, null),
+                new Crypto(3L, start + 3 * hour, "Bitcoin", 20.0, null)));
+        SymbolSeries bitcoin = tickStore.series("Bitcoin").orElseThrow();
+        bitcoin.min(0, Long.MAX_VALUE);
+
+        tickStore.updatePrices("Bitcoin", List.of(
+                new Crypto(2L, start + 2 * hour, "Bitcoin", 5.0, null),
+                new Crypto(3L, start + 3 * hour, "Bitcoin", 25.0, null),
+                new Crypto(9L, start + 3 * hour, "Bitcoin", 99.0, null)));
+
+        assertEquals(3, bitcoin.size());
+        assertEquals(2L, bitcoin.aggregate().min().id());
+        assertEquals(3L, bitcoin.aggregate().max().id());
+        assertEquals(25.0, bitcoin.aggregate().last().price());
+        assertEquals(2L, bitcoin.min(start, start + 2 * hour).orElseThrow().id());
+        assertEquals(List.of(new Candle(start, 10.0, 25.0, 5.0, 25.0, 3)),
+                bitcoin.candles(CandleResolution.DAILY, 0, Long.MAX_VALUE));
+        assertEquals(3, bitcoin.candles(CandleResolution.HOURLY, 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    public void testCandlesIncludeBucketThatFromFallsIn() {
+        long hour = 60 * 60 * 1000L;
+        long start = CandleResolution.HOURLY.bucketStart(1641009600000L, ZoneId.systemDefault());
+        tickStore.addAll(List.of(
+                new Crypto(1L, start + 10 * 60_000L, "Bitcoin", 10.0, null),
+                new Crypto(2L, start + hour + 10 * 60_000L, "Bitcoin", 20.0, null),
+                new Crypto(3L, start + 2 * hour + 10 * 60_000L, "Bitcoin", 30.0, null)));
+        SymbolSeries bitcoin = tickStore.series("Bitcoin").orElseThrow();
+
+        List<Candle> candles = bitcoin.candles(CandleResolution.HOURLY, start + hour + 30 * 60_000L, start + 2 * hour + 30 * 60_000L);
+
+        assertEquals(List.of(start + hour, start + 2 * hour), candles.stream().map(Candle::time).toList());
+        assertEquals(3, bitcoin.candles(CandleResolution.HOURLY, start + 5 * 60_000L, Long.MAX_VALUE).size());
+        assertEquals(List.of(start + 2 * hour), bitcoin.candles(CandleResolution.HOURLY, start + 2 * hour + 50 * 60_000L, Long.MAX_VALUE)
+                .stream().map(Candle::time).toList());
+        assertTrue(bitcoin.candles(CandleResolution.HOURLY, start + 3 * hour, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testIgnoresTicksWithoutTimingOrPrice() {
+        tickStore.add(new Crypto(1L, null, "Bitcoin", 10.0, null));
+        tickStore.addAll(List.of(new Crypto(2L, 100L, "Bitcoin", null, null)));
+
+        assertTrue(tickStore.series("Bitcoin").isEmpty());
+    }
+
+    @Test
+    public void testCandlesFollowInsertsAndRemovals() {
+        long hour = 60 * 60 * 1000L;
+        long start = CandleResolution.DAILY.bucketStart(1641009600000L, ZoneId.systemDefault());
+        tickStore.addAll(List.of(
+                new Crypto(1L, start + hour, "Bitcoin", 10.0, null),
+                new Crypto(2L, start + 2 * hour, "Bitcoin", 30.0, null),
+                new Crypto(3L, start + 3 * hour, "Bitcoin", 20.0, null)));
+        tickStore.add(new Crypto(4L, start, "Bitcoin", 15.0, null));
+
+        SymbolSeries bitcoin = tickStore.series("Bitcoin").orElseThrow();
+        List<Candle> daily = bitcoin.candles(CandleResolution.DAILY, 0, Long.MAX_VALUE);
+        assertEquals(List.of(new Candle(start, 15.0, 30.0, 10.0, 20.0, 4)), daily);
+        assertEquals(4, bitcoin.candles(CandleResolution.HOURLY, 0, Long.MAX_VALUE).size());
+        assertEquals(2L, bitcoin.candleTick(CandleResolution.DAILY, start, CandleSeries.Point.HIGH).get().id());
+
+        tickStore.remove(new Crypto(2L, start + 2 * hour, "Bitcoin", 30.0, null));
+        assertEquals(List.of(new Candle(start, 15.0, 20.0, 10.0, 20.0, 3)),
+                bitcoin.candles(CandleResolution.DAILY, 0, Long.MAX_VALUE));
+        assertEquals(3, bitcoin.candles(CandleResolution.HOURLY, 0, Long.MAX_VALUE).size());
+        assertTrue(bitcoin.candleTick(CandleResolution.DAILY, start + 1, CandleSeries.Point.HIGH).isEmpty());
+    }
+}
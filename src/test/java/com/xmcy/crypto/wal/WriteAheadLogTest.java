@@ -0,0 +1,177 @@
+package com.xmcy.crypto.wal;
+
+import com.xmcy.crypto.model.Crypto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WriteAheadLogTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testReplaysEarlierRunsInOrder() throws Exception {
+        WriteAheadLog first = new WriteAheadLog(true, directory, Duration.ZERO);
+        first.write(List.of(WalRecord.put(tick(1L, 100L, 1.0)), WalRecord.put(tick(2L, 200L, 2.0))), () -> { });
+        first.write(List.of(WalRecord.delete(tick(1L, 100L, 1.0))), () -> { });
+        first.write(List.of(WalRecord.put(new Crypto(3L, 300L, "Ethereum", 3.0, "Buy")),
+                WalRecord.put(new Crypto(4L, null, "Ethereum", 4.0, null))), () -> { });
+        first.close();
+
+        WriteAheadLog second = new WriteAheadLog(true, directory, Duration.ZERO);
+        List<String> replayed = new ArrayList<>();
+        long records = second.replay(10,
+                batch -> replayed.add("put " + batch.stream().map(Crypto::id).toList()),
+                deleted -> replayed.add("delete " + deleted.id() + " " + deleted.timing() + " " + deleted.name()));
+        List<Crypto> puts = new ArrayList<>();
+        second.replay(10, puts::addAll, deleted -> { });
+        second.close();
+
+        assertEquals(4, records);
+        assertEquals(List.of("put [1, 2]", "delete 1 100 Bitcoin", "put [3]"), replayed);
+        assertEquals(new Crypto(3L, 300L, "Ethereum", 3.0, "Buy"), puts.get(2));
+    }
+
+    @Test
+    public void testDoesNotReplayOwnSegment() throws Exception {
+        WriteAheadLog log = new WriteAheadLog(true, directory, Duration.ZERO);
+        log.write(List.of(WalRecord.put(tick(1L, 100L, 1.0))), () -> { });
+
+        assertEquals(0, log.replay(10, batch -> { }, deleted -> { }));
+        log.close();
+    }
+
+    @Test
+    public void testReplaysUpToTornRecord() throws Exception {
+        WriteAheadLog first = new WriteAheadLog(true, directory, Duration.ZERO);
+        first.write(List.of(WalRecord.put(tick(1L, 100L, 1.0))), () -> { });
+        first.write(List.of(WalRecord.put(tick(2L, 200L, 2.0))), () -> { });
+        first.close();
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        WriteAheadLog second = new WriteAheadLog(true, directory, Duration.ZERO);
+        List<Crypto> puts = new ArrayList<>();
+        second.replay(10, puts::addAll, deleted -> { });
+        second.close();
+
+        assertEquals(List.of(tick(1L, 100L, 1.0)), puts);
+    }
+
+    @Test
+    public void testRotatedSegmentsAreDeleted() throws Exception {
+        WriteAheadLog first = new WriteAheadLog(true, directory, Duration.ZERO);
+        first.write(List.of(WalRecord.put(tick(1L, 100L, 1.0))), () -> { });
+        long segment = first.rotate();
+        first.write(List.of(WalRecord.put(tick(2L, 200L, 2.0))), () -> { });
+        first.deleteSegmentsBefore(segment);
+        first.close();
+
+        WriteAheadLog second = new WriteAheadLog(true, directory, Duration.ZERO);
+        List<Crypto> puts = new ArrayList<>();
+        second.replay(10, puts::addAll, deleted -> { });
+        second.close();
+
+        assertEquals(List.of(tick(2L, 200L, 2.0)), puts);
+    }
+
+    @Test
+    public void testRotationWaitsForLoggedChangesToBeApplied() throws Exception {
+        WriteAheadLog log = new WriteAheadLog(true, directory, Duration.ZERO);
+        CountDownLatch logged = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean applied = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> writer = executor.submit(() -> log.write(List.of(WalRecord.put(tick(1L, 100L, 1.0))), () -> {
+            logged.countDown();
+            awaitQuietly(release);
+            applied.set(true);
+        }));
+        logged.await();
+        Future<Boolean> rotation = executor.submit(() -> {
+            log.rotate();
+            return applied.get();
+        });
+
+        Thread.sleep(100);
+        assertFalse(rotation.isDone());
+        release.countDown();
+        writer.get();
+        assertTrue(rotation.get());
+        executor.shutdown();
+        log.close();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testConcurrentWritersAreAllLogged() throws Exception {
+        WriteAheadLog first = new WriteAheadLog(true, directory, Duration.ZERO);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            long offset = thread * 1000L;
+            writers.add(executor.submit(() -> {
+                for (long i = 0; i < 50; i++) {
+                    first.write(List.of(WalRecord.put(tick(offset + i, offset + i, 1.0))), () -> { });
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+        first.close();
+
+        WriteAheadLog second = new WriteAheadLog(true, directory, Duration.ZERO);
+        assertEquals(400, second.replay(1000, batch -> { }, deleted -> { }));
+        second.close();
+    }
+
+    @Test
+    public void testSyncWindowFlushesOnClose() throws Exception {
+        WriteAheadLog first = new WriteAheadLog(true, directory, Duration.ofMinutes(1));
+        first.write(List.of(WalRecord.put(tick(1L, 100L, 1.0))), () -> { });
+        first.close();
+
+        WriteAheadLog second = new WriteAheadLog(true, directory, Duration.ZERO);
+        assertEquals(1, second.replay(10, batch -> { }, deleted -> { }));
+        second.close();
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static Crypto tick(long id, long timing, double price) {
+        return new Crypto(id, timing, "Bitcoin", price, null);
+    }
+}